@@ -0,0 +1,391 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ApiServer implements AutoCloseable {
+    // ==========================================
+    // Endpoints
+    // ==========================================
+    //   POST /api/customers          one customer         -> 201, 400, 409 or 422
+    //   POST /api/customers/batch    array of customers   -> 200 with one result per element
+    //   GET  /api/customers/{key}    ID or policy number  -> 200 or 404
+    //   GET  /api/customers?name=&email=&phone=&policy_type=&policy_number=&after_id=&limit=
+    //   GET  /api/metrics            Metrics.dumpJson()
+    //   GET  /api/health
+    //
+    // Customers use the importer's JSONL field names (see CustomerJson).
+    private static final int MAX_BODY_BYTES = 8 * 1024 * 1024;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final CustomerService customers;
+    private final int maxBatchSize;
+    private final HttpServer server;
+    private final ExecutorService workers;
+
+    public ApiServer(CustomerService customers, DatabaseConfig config) throws IOException {
+        this.customers = customers;
+        this.maxBatchSize = config.getApiMaxBatchSize();
+        // Without TCP_NODELAY small keep-alive responses sit behind the client's delayed ACK
+        // (~40 ms each); the JDK server reads this once, before the first server is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        server = HttpServer.create(new InetSocketAddress(config.getApiBindAddress(), config.getApiPort()), 0);
+
+        // Requests mostly wait on the connection pool, so cheap virtual threads suit them when
+        // the JDK has them; older JDKs get a fixed pool
+        ExecutorService virtual = PersistenceExecutor.createVirtualThreadExecutor();
+        if (virtual != null) {
+            workers = virtual;
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(config.getApiThreads(), r -> {
+                Thread thread = new Thread(r, "api-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        server.setExecutor(workers);
+        server.createContext("/api/customers", this::handleCustomers);
+        server.createContext("/api/metrics", exchange -> {
+            if (requireGet(exchange)) {
+                send(exchange, 200, Metrics.dumpJson());
+            }
+        });
+        server.createContext("/api/health", exchange -> {
+            if (requireGet(exchange)) {
+                send(exchange, 200, "{\"status\":\"ok\"}");
+            }
+        });
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("API listening on http://" + server.getAddress().getHostString() + ":"
+            + server.getAddress().getPort() + "/api");
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Lets requests in flight finish for up to a second
+    @Override
+    public void close() {
+        server.stop(1);
+        workers.shutdown();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==========================================
+    // Request Routing
+    // ==========================================
+    private void handleCustomers(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String rest = path.startsWith("/api/customers/") ? path.substring("/api/customers/".length())
+                : path.equals("/api/customers") ? "" : null;
+            String method = exchange.getRequestMethod();
+            if (rest == null) {
+                sendError(exchange, 404, "No such endpoint: " + method + " " + path);
+            } else if (rest.isEmpty() && "POST".equals(method)) {
+                create(exchange);
+            } else if (rest.equals("batch") && "POST".equals(method)) {
+                createBatch(exchange);
+            } else if (rest.isEmpty() && "GET".equals(method)) {
+                search(exchange);
+            } else if (!rest.isEmpty() && !rest.contains("/") && "GET".equals(method)) {
+                find(exchange, decode(rest));
+            } else {
+                sendError(exchange, 404, "No such endpoint: " + method + " " + path);
+            }
+        } catch (SQLTimeoutException e) {
+            // The pool is saturated; tell the client to back off rather than queue forever
+            sendError(exchange, 503, e.getMessage());
+        } catch (SQLException e) {
+            System.err.println("API database error: " + e.getMessage());
+            sendError(exchange, 500, "Database error: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("API request failed: " + e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // ==========================================
+    // Customer Endpoints
+    // ==========================================
+    private void create(HttpExchange exchange) throws IOException, SQLException {
+        CustomerRecord record = CustomerJson.fromJson(Json.parseObject(readBody(exchange)));
+        CustomerService.CreateResult result = customers.create(record);
+        int status;
+        switch (result.getStatus()) {
+            case CREATED: status = 201; break;
+            case DUPLICATE: status = 409; break;
+            case INVALID: status = 422; break;
+            default: status = 500; break;
+        }
+        send(exchange, status, appendResult(new StringBuilder(), result).toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void createBatch(HttpExchange exchange) throws IOException, SQLException {
+        Object body = Json.parse(readBody(exchange));
+        if (!(body instanceof List)) {
+            throw new IllegalArgumentException("Expected a JSON array of customers");
+        }
+        List<Object> items = (List<Object>) body;
+        if (items.size() > maxBatchSize) {
+            sendError(exchange, 413, "At most " + maxBatchSize + " customers per batch");
+            return;
+        }
+        List<CustomerRecord> records = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (!(items.get(i) instanceof Map)) {
+                throw new IllegalArgumentException("Element " + i + " is not a JSON object");
+            }
+            try {
+                records.add(CustomerJson.fromJson((Map<String, Object>) items.get(i)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Element " + i + ": " + e.getMessage());
+            }
+        }
+
+        List<CustomerService.CreateResult> results = customers.createAll(records);
+        int created = 0;
+        StringBuilder sb = new StringBuilder(128 + results.size() * 256);
+        sb.append("{\"results\":[");
+        for (int i = 0; i < results.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            if (results.get(i).isCreated()) {
+                created++;
+            }
+            appendResult(sb, results.get(i));
+        }
+        sb.append("],\"created\":").append(created).append(",\"rejected\":").append(results.size() - created).append('}');
+        send(exchange, 200, sb.toString());
+    }
+
+    private void find(HttpExchange exchange, String key) throws IOException, SQLException {
+        CustomerRecord record = customers.find(key);
+        if (record == null) {
+            sendError(exchange, 404, "No customer found for " + key);
+            return;
+        }
+        send(exchange, 200, CustomerJson.appendJson(new StringBuilder(), record, customers.quoteCents(record)).toString());
+    }
+
+    // Keyset paging: pass next_after_id back as after_id to get the following page
+    private void search(HttpExchange exchange) throws IOException, SQLException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        CustomerSearch.Filter filter = new CustomerSearch.Filter(query.get("name"), query.get("email"),
+            query.get("phone"), query.get("policy_type"), query.get("policy_number"));
+        long afterId = parseLong(query.get("after_id"), 0, "after_id");
+        int limit = (int) parseLong(query.get("limit"), DEFAULT_PAGE_SIZE, "limit");
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<CustomerRecord> page = customers.search(filter, afterId, limit);
+        StringBuilder sb = new StringBuilder(64 + page.size() * 256);
+        sb.append("{\"customers\":[");
+        for (int i = 0; i < page.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            CustomerJson.appendJson(sb, page.get(i), customers.quoteCents(page.get(i)));
+        }
+        sb.append("],\"next_after_id\":");
+        sb.append(page.size() < limit ? "null" : Long.toString(page.get(page.size() - 1).getId()));
+        send(exchange, 200, sb.append('}').toString());
+    }
+
+    private static StringBuilder appendResult(StringBuilder sb, CustomerService.CreateResult result) {
+        sb.append("{\"status\":").append(Json.quote(result.getStatus().name().toLowerCase(Locale.ROOT)));
+        if (result.isCreated()) {
+            sb.append(",\"customer\":");
+            CustomerJson.appendJson(sb, result.getRecord(), result.getPremiumCents());
+        } else if (result.getErrorMessage() != null) {
+            sb.append(",\"error\":").append(Json.quote(result.getErrorMessage()));
+        } else {
+            sb.append(",\"errors\":[");
+            List<CustomerValidator.ValidationResult> failures = result.getFailures();
+            for (int i = 0; i < failures.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append("{\"field\":").append(Json.quote(failures.get(i).getField().name().toLowerCase(Locale.ROOT)))
+                    .append(",\"message\":").append(Json.quote(failures.get(i).getMessage())).append('}');
+            }
+            sb.append(']');
+        }
+        return sb.append('}');
+    }
+
+    // ==========================================
+    // HTTP Helpers
+    // ==========================================
+    private static boolean requireGet(HttpExchange exchange) throws IOException {
+        if ("GET".equals(exchange.getRequestMethod())) {
+            return true;
+        }
+        sendError(exchange, 405, "Only GET is supported");
+        exchange.close();
+        return false;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = exchange.getRequestBody()) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                if (body.size() + n > MAX_BODY_BYTES) {
+                    throw new IllegalArgumentException("Request body is larger than " + MAX_BODY_BYTES + " bytes");
+                }
+                body.write(buffer, 0, n);
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, "{\"error\":" + Json.quote(message) + "}");
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                query.put(decode(pair.substring(0, eq)), decode(pair.substring(eq + 1)));
+            }
+        }
+        return query;
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long parseLong(String value, long defaultValue, String name) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+    }
+
+    // ==========================================
+    // Standalone Server
+    // ==========================================
+    // Runs the API without the Swing client:
+    //   java -cp .:lib/ojdbc8.jar ApiServer
+    public static void main(String[] args) {
+        ConfigLoader configLoader = new ConfigLoader();
+        DatabaseConfig config;
+        try {
+            config = configLoader.load();
+        } catch (ConfigException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        ConnectionPool pool = null;
+        try {
+            config.loadDriver();
+            pool = new ConnectionPool(config);
+            try (Connection connection = pool.getConnection()) {
+                DatabaseSchema.ensureSchema(connection);
+            }
+            PolicyNumberIndex policyNumbers = new PolicyNumberIndex();
+            policyNumbers.warm(pool);
+            PolicyCache policyCache = new PolicyCache(config.getCacheMaxEntries(), config.getCacheTtlMillis());
+            CustomerService service = new CustomerService(pool, new CustomerIdAllocator(config.getIdBlockSize()),
+                policyNumbers, policyCache, PremiumEngine.withDefaultRates(), config);
+            Metrics.registerMBeans();
+            if (!config.getMetricsDumpFile().isEmpty()) {
+                Metrics.startDumping(new File(config.getMetricsDumpFile()), config.getMetricsDumpIntervalMillis());
+            }
+
+            // Same hot reload as the desktop app; timeouts and batch sizes are read from
+            // config on every use, the pool and cache need their limits pushed across
+            ConnectionPool started = pool;
+            configLoader.startWatching(config, (live, changedKeys) -> {
+                if (changedKeys.contains("ims.pool.maxSize")) {
+                    started.setMaxPoolSize(live.getMaxPoolSize());
+                }
+                if (changedKeys.contains("ims.cache.maxEntries") || changedKeys.contains("ims.cache.ttlMillis")) {
+                    policyCache.resize(live.getCacheMaxEntries(), live.getCacheTtlMillis());
+                }
+            });
+
+            ApiServer api = new ApiServer(service, config);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                configLoader.close();
+                api.close();
+                started.close();
+                Metrics.stopDumping();
+                System.out.println("API stopped.");
+            }, "api-shutdown"));
+            api.start();
+        } catch (Exception e) {
+            System.err.println("Could not start API: " + e.getMessage());
+            configLoader.close();
+            if (pool != null) {
+                pool.close();
+            }
+            System.exit(1);
+        }
+    }
+}
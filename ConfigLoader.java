@@ -0,0 +1,318 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public class ConfigLoader implements AutoCloseable {
+    // ==========================================
+    // Sources
+    // ==========================================
+    // Later sources win: built-in defaults, the properties file (-Dims.config,
+    // IMS_CONFIG or ./ims.properties), environment variables (ims.pool.maxSize
+    // becomes IMS_POOL_MAX_SIZE), then system properties (-Dims.pool.maxSize=16).
+    private static final String DEFAULT_FILE = "ims.properties";
+    private static final long POLL_MILLIS = 2000;
+
+    private final Path file;
+    private final boolean fileRequired;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService watcher;
+    private volatile long lastModified;
+
+    // Called on the watcher thread with the keys whose new values were applied
+    public interface Listener {
+        void configChanged(DatabaseConfig config, List<String> changedKeys);
+    }
+
+    // ==========================================
+    // Settings
+    // ==========================================
+    private static final class Setting {
+        final String key;
+        final boolean reloadable;
+        final Function<DatabaseConfig, Object> getter;
+        final BiConsumer<DatabaseConfig, String> setter;
+
+        Setting(String key, boolean reloadable, Function<DatabaseConfig, Object> getter,
+                BiConsumer<DatabaseConfig, String> setter) {
+            this.key = key;
+            this.reloadable = reloadable;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    private static final Map<String, Setting> SETTINGS = new LinkedHashMap<>();
+
+    static {
+        // The backend goes first because choosing it resets the connection settings
+        add(new Setting("ims.db.backend", false, DatabaseConfig::getBackend,
+            (config, value) -> config.setBackend(DatabaseBackend.forName(value))));
+        add(new Setting("ims.db.url", false, DatabaseConfig::getUrl, DatabaseConfig::setUrl));
+        add(new Setting("ims.db.username", false, DatabaseConfig::getUsername, DatabaseConfig::setUsername));
+        add(new Setting("ims.db.password", false, DatabaseConfig::getPassword, DatabaseConfig::setPassword));
+        add(new Setting("ims.db.driverJar", false, DatabaseConfig::getDriverJar, DatabaseConfig::setDriverJar));
+        add(new Setting("ims.db.driverClass", false, DatabaseConfig::getDriverClass, DatabaseConfig::setDriverClass));
+
+        add(new Setting("ims.pool.maxSize", true, DatabaseConfig::getMaxPoolSize,
+            (config, value) -> config.setMaxPoolSize(parseInt(value, 1, 256))));
+        add(new Setting("ims.pool.maxWaitMillis", true, DatabaseConfig::getMaxWaitMillis,
+            (config, value) -> config.setMaxWaitMillis(parseLong(value, 1, 10 * 60 * 1000))));
+        add(new Setting("ims.pool.idleTimeoutMillis", true, DatabaseConfig::getIdleTimeoutMillis,
+            (config, value) -> config.setIdleTimeoutMillis(parseLong(value, 1000, 24L * 60 * 60 * 1000))));
+        add(new Setting("ims.pool.validationIntervalMillis", true, DatabaseConfig::getValidationIntervalMillis,
+            (config, value) -> config.setValidationIntervalMillis(parseLong(value, 0, 10 * 60 * 1000))));
+        add(new Setting("ims.pool.validationTimeoutSeconds", true, DatabaseConfig::getValidationTimeoutSeconds,
+            (config, value) -> config.setValidationTimeoutSeconds(parseInt(value, 1, 60))));
+
+        add(new Setting("ims.ids.blockSize", false, DatabaseConfig::getIdBlockSize,
+            (config, value) -> config.setIdBlockSize(parseInt(value, 1, 100_000))));
+        add(new Setting("ims.batch.size", true, DatabaseConfig::getBatchSize,
+            (config, value) -> config.setBatchSize(parseInt(value, 1, 100_000))));
+        add(new Setting("ims.batch.commitInterval", true, DatabaseConfig::getCommitInterval,
+            (config, value) -> config.setCommitInterval(parseInt(value, 1, 10_000_000))));
+
+        add(new Setting("ims.cache.maxEntries", true, DatabaseConfig::getCacheMaxEntries,
+            (config, value) -> config.setCacheMaxEntries(parseInt(value, 0, 10_000_000))));
+        add(new Setting("ims.cache.ttlMillis", true, DatabaseConfig::getCacheTtlMillis,
+            (config, value) -> config.setCacheTtlMillis(parseLong(value, 0, 7L * 24 * 60 * 60 * 1000))));
+
+        add(new Setting("ims.renewal.windowDays", false, DatabaseConfig::getRenewalWindowDays,
+            (config, value) -> config.setRenewalWindowDays(parseInt(value, 1, 3660))));
+        add(new Setting("ims.renewal.batchSize", false, DatabaseConfig::getRenewalBatchSize,
+            (config, value) -> config.setRenewalBatchSize(parseInt(value, 1, 100_000))));
+        add(new Setting("ims.renewal.intervalMillis", false, DatabaseConfig::getRenewalIntervalMillis,
+            (config, value) -> config.setRenewalIntervalMillis(parseLong(value, 1000, 24L * 60 * 60 * 1000))));
+
+        add(new Setting("ims.metrics.dumpFile", false, DatabaseConfig::getMetricsDumpFile,
+            DatabaseConfig::setMetricsDumpFile));
+        add(new Setting("ims.metrics.dumpIntervalMillis", false, DatabaseConfig::getMetricsDumpIntervalMillis,
+            (config, value) -> config.setMetricsDumpIntervalMillis(parseLong(value, 1000, 24L * 60 * 60 * 1000))));
+
+        add(new Setting("ims.api.bindAddress", false, DatabaseConfig::getApiBindAddress,
+            DatabaseConfig::setApiBindAddress));
+        add(new Setting("ims.api.port", false, DatabaseConfig::getApiPort,
+            (config, value) -> config.setApiPort(parseInt(value, 0, 65535))));
+        add(new Setting("ims.api.threads", false, DatabaseConfig::getApiThreads,
+            (config, value) -> config.setApiThreads(parseInt(value, 1, 1024))));
+        add(new Setting("ims.api.maxBatchSize", false, DatabaseConfig::getApiMaxBatchSize,
+            (config, value) -> config.setApiMaxBatchSize(parseInt(value, 1, 100_000))));
+
+        add(new Setting("ims.validation.debounceMillis", true, DatabaseConfig::getValidationDebounceMillis,
+            (config, value) -> config.setValidationDebounceMillis(parseInt(value, 0, 5000))));
+
+        add(new Setting("ims.resources.cacheDir", false, DatabaseConfig::getResourceCacheDir,
+            DatabaseConfig::setResourceCacheDir));
+
+        add(new Setting("ims.offline.queueFile", false, DatabaseConfig::getOfflineQueueFile,
+            DatabaseConfig::setOfflineQueueFile));
+        add(new Setting("ims.offline.batchSize", false, DatabaseConfig::getOfflineBatchSize,
+            (config, value) -> config.setOfflineBatchSize(parseInt(value, 1, 10_000))));
+        add(new Setting("ims.offline.retryMillis", false, DatabaseConfig::getOfflineRetryMillis,
+            (config, value) -> config.setOfflineRetryMillis(parseLong(value, 100, 60L * 60 * 1000))));
+
+        add(new Setting("ims.users.store", false, DatabaseConfig::getUserStore, (config, value) -> {
+            if (!value.equals("file") && !value.equals("jdbc")) {
+                throw new IllegalArgumentException("expected file or jdbc");
+            }
+            config.setUserStore(value);
+        }));
+    }
+
+    private static void add(Setting setting) {
+        SETTINGS.put(setting.key, setting);
+    }
+
+    // ==========================================
+    // Loading
+    // ==========================================
+    public ConfigLoader() {
+        String explicit = System.getProperty("ims.config", System.getenv("IMS_CONFIG"));
+        this.file = Paths.get(explicit != null ? explicit : DEFAULT_FILE);
+        this.fileRequired = explicit != null;
+    }
+
+    public ConfigLoader(Path file) {
+        this.file = file;
+        this.fileRequired = true;
+    }
+
+    // Convenience for the command-line tools, which do not reload
+    public static DatabaseConfig loadConfig() {
+        return new ConfigLoader().load();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    // Builds a validated config from all sources; every problem is reported at once
+    public DatabaseConfig load() {
+        Map<String, String> values = resolve();
+        DatabaseConfig config = new DatabaseConfig();
+        List<String> problems = new ArrayList<>();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            try {
+                SETTINGS.get(entry.getKey()).setter.accept(config, entry.getValue());
+            } catch (IllegalArgumentException e) {
+                problems.add(entry.getKey() + "=" + entry.getValue() + ": " + e.getMessage());
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new ConfigException("Invalid configuration:\n  " + String.join("\n  ", problems));
+        }
+        return config;
+    }
+
+    private Map<String, String> resolve() {
+        Properties fromFile = new Properties();
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                fromFile.load(in);
+                lastModified = Files.getLastModifiedTime(file).toMillis();
+            } catch (IOException e) {
+                throw new ConfigException("Could not read " + file, e);
+            }
+        } else if (fileRequired) {
+            throw new ConfigException("Config file " + file + " not found");
+        }
+
+        List<String> unknown = new ArrayList<>();
+        for (String name : fromFile.stringPropertyNames()) {
+            if (!SETTINGS.containsKey(name)) {
+                unknown.add(name);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new ConfigException("Unknown settings in " + file + ": " + String.join(", ", unknown));
+        }
+
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String key : SETTINGS.keySet()) {
+            String value = System.getProperty(key);
+            if (value == null) {
+                value = System.getenv(envName(key));
+            }
+            if (value == null) {
+                value = fromFile.getProperty(key);
+            }
+            if (value != null) {
+                values.put(key, value.trim());
+            }
+        }
+        return values;
+    }
+
+    static String envName(String key) {
+        StringBuilder sb = new StringBuilder(key.length() + 8);
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '.') {
+                sb.append('_');
+            } else if (Character.isUpperCase(c)) {
+                sb.append('_').append(c);
+            } else {
+                sb.append(Character.toUpperCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int parseInt(String value, int min, int max) {
+        return (int) parseLong(value, min, max);
+    }
+
+    private static long parseLong(String value, long min, long max) {
+        long parsed;
+        try {
+            parsed = Long.parseLong(value.replace("_", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("not a number");
+        }
+        if (parsed < min || parsed > max) {
+            throw new IllegalArgumentException("must be between " + min + " and " + max);
+        }
+        return parsed;
+    }
+
+    // ==========================================
+    // Hot Reload
+    // ==========================================
+    // Polls the file and copies reloadable settings into the live config. Others
+    // are logged as needing a restart; an invalid file leaves everything as it was.
+    public synchronized void startWatching(DatabaseConfig live, Listener listener) {
+        listeners.add(listener);
+        if (watcher != null) {
+            return;
+        }
+        watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "config-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher.scheduleWithFixedDelay(() -> {
+            try {
+                long modified = Files.exists(file) ? Files.getLastModifiedTime(file).toMillis() : 0;
+                if (modified != lastModified) {
+                    reload(live);
+                }
+            } catch (IOException | ConfigException e) {
+                System.err.println("Config reload skipped: " + e.getMessage());
+            }
+        }, POLL_MILLIS, POLL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public List<String> reload(DatabaseConfig live) {
+        DatabaseConfig updated;
+        try {
+            updated = load();
+        } finally {
+            lastModified = Files.exists(file) ? file.toFile().lastModified() : 0;
+        }
+
+        List<String> applied = new ArrayList<>();
+        for (Setting setting : SETTINGS.values()) {
+            Object oldValue = setting.getter.apply(live);
+            Object newValue = setting.getter.apply(updated);
+            if (Objects.equals(oldValue, newValue)) {
+                continue;
+            }
+            boolean secret = setting.key.endsWith("password");
+            if (setting.reloadable) {
+                setting.setter.accept(live, String.valueOf(newValue));
+                applied.add(setting.key);
+                System.out.println("Config: " + setting.key + " changed from " + oldValue + " to " + newValue);
+            } else {
+                System.out.println("Config: " + setting.key + " changed"
+                    + (secret ? "" : " to " + newValue) + "; restart to apply");
+            }
+        }
+        if (!applied.isEmpty()) {
+            for (Listener listener : listeners) {
+                listener.configChanged(live, applied);
+            }
+        }
+        return applied;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+}
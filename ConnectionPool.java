@@ -0,0 +1,406 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConnectionPool implements AutoCloseable {
+    // ==========================================
+    // Pool State
+    // ==========================================
+    private final DatabaseConfig config;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotAvailable = lock.newCondition();
+    private final Deque<IdleConnection> idleConnections = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+    private int activeCount;
+    private int maxPoolSize;
+    private boolean closed;
+
+    // ==========================================
+    // Metrics
+    // ==========================================
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong reconnectCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    private static class IdleConnection {
+        final Connection connection;
+        final long returnedAt;
+
+        IdleConnection(Connection connection, long returnedAt) {
+            this.connection = connection;
+            this.returnedAt = returnedAt;
+        }
+    }
+
+    public ConnectionPool(DatabaseConfig config) {
+        this.config = config;
+        this.maxPoolSize = Math.max(1, config.getMaxPoolSize());
+
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictionPeriod = Math.max(1000, config.getIdleTimeoutMillis() / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections, evictionPeriod, evictionPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    // ==========================================
+    // Borrowing Connections
+    // ==========================================
+    public Connection getConnection() throws SQLException {
+        long waitStart = System.nanoTime();
+        long deadline = waitStart + TimeUnit.MILLISECONDS.toNanos(config.getMaxWaitMillis());
+        IdleConnection candidate = null;
+
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new SQLException("Connection pool is closed");
+                }
+                if (!idleConnections.isEmpty()) {
+                    // LIFO keeps the most recently used (warmest) connections busy
+                    candidate = idleConnections.pollFirst();
+                    activeCount++;
+                    break;
+                }
+                if (activeCount < maxPoolSize) {
+                    // Reserve the slot now and open the physical connection outside the lock
+                    activeCount++;
+                    break;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    timeoutCount.incrementAndGet();
+                    Metrics.failure(Metrics.Operation.CONNECT, waitStart);
+                    throw new SQLTimeoutException("Timed out after " + config.getMaxWaitMillis()
+                        + " ms waiting for a database connection (" + activeCount + " in use)");
+                }
+                slotAvailable.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Metrics.failure(Metrics.Operation.CONNECT, waitStart);
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            lock.unlock();
+        }
+        recordWait(System.nanoTime() - waitStart);
+
+        try {
+            Connection physical = candidate != null ? validate(candidate) : null;
+            if (physical == null) {
+                physical = openConnection();
+            }
+            Connection pooled = wrap(physical);
+            Metrics.success(Metrics.Operation.CONNECT, waitStart);
+            return pooled;
+        } catch (SQLException | RuntimeException e) {
+            releaseSlot();
+            Metrics.failure(Metrics.Operation.CONNECT, waitStart);
+            throw e;
+        }
+    }
+
+    private Connection validate(IdleConnection candidate) {
+        // Connections returned a moment ago are trusted without a round-trip
+        if (System.currentTimeMillis() - candidate.returnedAt < config.getValidationIntervalMillis()) {
+            return candidate.connection;
+        }
+        try {
+            if (candidate.connection.isValid(config.getValidationTimeoutSeconds())) {
+                return candidate.connection;
+            }
+        } catch (SQLException e) {
+            System.err.println("Pooled connection failed validation: " + e.getMessage());
+        }
+        closeQuietly(candidate.connection);
+        reconnectCount.incrementAndGet();
+        Metrics.retry(Metrics.Operation.CONNECT);
+        return null;
+    }
+
+    private Connection openConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(
+            config.getUrl(), config.getUsername(), config.getPassword());
+        createdCount.incrementAndGet();
+        return connection;
+    }
+
+    private void recordWait(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    // ==========================================
+    // Returning Connections
+    // ==========================================
+    private void release(Connection physical, boolean broken) {
+        if (!broken) {
+            try {
+                if (physical.isClosed()) {
+                    broken = true;
+                } else if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                broken = true;
+            }
+        }
+
+        lock.lock();
+        try {
+            activeCount--;
+            if (!broken && !closed && activeCount + idleConnections.size() < maxPoolSize) {
+                idleConnections.addFirst(new IdleConnection(physical, System.currentTimeMillis()));
+                physical = null;
+            }
+            slotAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        if (physical != null) {
+            closeQuietly(physical);
+        }
+    }
+
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            activeCount--;
+            slotAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ==========================================
+    // Idle Eviction
+    // ==========================================
+    private void evictIdleConnections() {
+        long cutoff = System.currentTimeMillis() - config.getIdleTimeoutMillis();
+        List<Connection> expired = new ArrayList<>();
+
+        lock.lock();
+        try {
+            Iterator<IdleConnection> it = idleConnections.iterator();
+            while (it.hasNext()) {
+                IdleConnection idle = it.next();
+                if (idle.returnedAt < cutoff) {
+                    it.remove();
+                    expired.add(idle.connection);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (Connection connection : expired) {
+            closeQuietly(connection);
+            evictedCount.incrementAndGet();
+        }
+    }
+
+    // ==========================================
+    // Pooled Connection Proxy
+    // ==========================================
+    private Connection wrap(Connection physical) {
+        return (Connection) Proxy.newProxyInstance(
+            ConnectionPool.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            new PooledConnectionHandler(physical));
+    }
+
+    private class PooledConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private boolean returned;
+        private boolean broken;
+
+        PooledConnectionHandler(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(physical, broken);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || physical.isClosed();
+                case "unwrap":
+                case "isWrapperFor":
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+            }
+
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                // The session itself is gone; don't hand it out again
+                if (cause instanceof SQLException && isSessionLost((SQLException) cause)) {
+                    broken = true;
+                }
+                throw cause;
+            }
+        }
+    }
+
+    // SQLState class 08: connection exceptions, as opposed to errors in the statement
+    static boolean isSessionLost(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
+    }
+
+    // ==========================================
+    // Pool Metrics
+    // ==========================================
+    public int getActiveCount() {
+        lock.lock();
+        try {
+            return activeCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getIdleCount() {
+        lock.lock();
+        try {
+            return idleConnections.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaitingCount() {
+        lock.lock();
+        try {
+            return lock.getWaitQueueLength(slotAvailable);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Growing wakes waiting borrowers; shrinking closes surplus idle connections
+    // now and lets busy ones close as they are returned
+    public void setMaxPoolSize(int newMaxPoolSize) {
+        List<Connection> surplus = new ArrayList<>();
+        lock.lock();
+        try {
+            maxPoolSize = Math.max(1, newMaxPoolSize);
+            while (!idleConnections.isEmpty() && activeCount + idleConnections.size() > maxPoolSize) {
+                surplus.add(idleConnections.removeLast().connection);
+            }
+            slotAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Connection connection : surplus) {
+            closeQuietly(connection);
+        }
+    }
+
+    public int getMaxPoolSize() {
+        lock.lock();
+        try {
+            return maxPoolSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getBorrowCount() { return borrowCount.get(); }
+    public long getTimeoutCount() { return timeoutCount.get(); }
+    public long getCreatedCount() { return createdCount.get(); }
+    public long getReconnectCount() { return reconnectCount.get(); }
+    public long getEvictedCount() { return evictedCount.get(); }
+
+    public double getAverageWaitMillis() {
+        long borrows = borrowCount.get();
+        return borrows == 0 ? 0 : totalWaitNanos.get() / (double) borrows / 1_000_000.0;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    public String getStatsSummary() {
+        return String.format("Pool: %d active, %d idle, %d waiting (max %d) | wait avg %.2f ms, max %.2f ms | "
+                + "%d timeouts, %d reconnects",
+            getActiveCount(), getIdleCount(), getWaitingCount(), getMaxPoolSize(),
+            getAverageWaitMillis(), getMaxWaitMillis(), getTimeoutCount(), getReconnectCount());
+    }
+
+    // ==========================================
+    // Shutdown
+    // ==========================================
+    @Override
+    public void close() {
+        List<Connection> toClose = new ArrayList<>();
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (IdleConnection idle : idleConnections) {
+                toClose.add(idle.connection);
+            }
+            idleConnections.clear();
+            slotAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        evictor.shutdownNow();
+        for (Connection connection : toClose) {
+            closeQuietly(connection);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+}
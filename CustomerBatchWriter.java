@@ -0,0 +1,263 @@
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class CustomerBatchWriter implements AutoCloseable {
+    // ==========================================
+    // Shared Insert Statement
+    // ==========================================
+    static final String INSERT_SQL = "INSERT INTO customer_details (id, name, email, phone, address, policy_type, " +
+            "policy_number, start_date, end_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    static void bindInsert(PreparedStatement pstmt, CustomerRecord record) throws SQLException {
+        pstmt.setLong(1, record.getId());
+        pstmt.setString(2, record.getName());
+        pstmt.setString(3, record.getEmail());
+        pstmt.setString(4, record.getPhone());
+        pstmt.setString(5, record.getAddress());
+        pstmt.setString(6, record.getPolicyType());
+        pstmt.setString(7, record.getPolicyNumber());
+        pstmt.setDate(8, new java.sql.Date(record.getStartDate().getTime()));
+        pstmt.setDate(9, new java.sql.Date(record.getEndDate().getTime()));
+    }
+
+    // ==========================================
+    // Writer State
+    // ==========================================
+    private final Connection connection;
+    private final CustomerIdAllocator idAllocator;
+    private final int batchSize;
+    private final int commitInterval;
+    private final boolean originalAutoCommit;
+    private final PreparedStatement insertStatement;
+
+    private final List<PendingRow> pendingBatch = new ArrayList<>();
+    private final List<RowFailure> failures = new ArrayList<>();
+    private final long startNanos = System.nanoTime();
+    private long failedCount;
+    private long nextRowNumber = 1;
+    private long uncommittedRows;
+    private long insertedCount;
+    private long batchCount;
+    private long commitCount;
+    private boolean closed;
+
+    private static class PendingRow {
+        final long rowNumber;
+        final CustomerRecord record;
+        final String source;
+
+        PendingRow(long rowNumber, CustomerRecord record, String source) {
+            this.rowNumber = rowNumber;
+            this.record = record;
+            this.source = source;
+        }
+    }
+
+    public static class RowFailure {
+        private final long rowNumber;
+        private final CustomerRecord record;
+        private final String source;
+        private final String message;
+
+        RowFailure(long rowNumber, CustomerRecord record, String source, String message) {
+            this.rowNumber = rowNumber;
+            this.record = record;
+            this.source = source;
+            this.message = message;
+        }
+
+        public long getRowNumber() { return rowNumber; }
+        public CustomerRecord getRecord() { return record; }
+        // The input line the record came from, or null if the caller gave none
+        public String getSource() { return source; }
+        public String getMessage() { return message; }
+    }
+
+    public static class BatchResult {
+        private final long insertedCount;
+        private final List<RowFailure> failures;
+        private final long failedCount;
+        private final long batchCount;
+        private final long commitCount;
+        private final long elapsedMillis;
+
+        BatchResult(long insertedCount, List<RowFailure> failures, long failedCount, long batchCount,
+                    long commitCount, long elapsedMillis) {
+            this.insertedCount = insertedCount;
+            this.failures = Collections.unmodifiableList(new ArrayList<>(failures));
+            this.failedCount = failedCount;
+            this.batchCount = batchCount;
+            this.commitCount = commitCount;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getInsertedCount() { return insertedCount; }
+        // Failures not already handed out by takeFailures()
+        public List<RowFailure> getFailures() { return failures; }
+        public long getFailedCount() { return failedCount; }
+        public long getBatchCount() { return batchCount; }
+        public long getCommitCount() { return commitCount; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public double getRowsPerSecond() {
+            return elapsedMillis == 0 ? insertedCount : insertedCount * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d inserted, %d failed in %d batches / %d commits (%.0f rows/s)",
+                insertedCount, failedCount, batchCount, commitCount, getRowsPerSecond());
+        }
+    }
+
+    // commitInterval is the number of rows per transaction; it is rounded up to whole batches
+    public CustomerBatchWriter(Connection connection, CustomerIdAllocator idAllocator,
+                               int batchSize, int commitInterval) throws SQLException {
+        if (batchSize < 1 || commitInterval < 1) {
+            throw new IllegalArgumentException("Batch size and commit interval must be positive");
+        }
+        this.connection = connection;
+        this.idAllocator = idAllocator;
+        this.batchSize = batchSize;
+        this.commitInterval = Math.max(batchSize, commitInterval);
+        this.originalAutoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        this.insertStatement = connection.prepareStatement(INSERT_SQL);
+    }
+
+    // ==========================================
+    // Writing Rows
+    // ==========================================
+    public void add(CustomerRecord record) throws SQLException {
+        add(nextRowNumber, record);
+    }
+
+    public void add(long rowNumber, CustomerRecord record) throws SQLException {
+        add(rowNumber, record, null);
+    }
+
+    // source is only kept until the row is written, and returned with a failure
+    public void add(long rowNumber, CustomerRecord record, String source) throws SQLException {
+        if (closed) {
+            throw new SQLException("Batch writer is closed");
+        }
+        nextRowNumber = rowNumber + 1;
+        record.setId(idAllocator.nextId(connection));
+        pendingBatch.add(new PendingRow(rowNumber, record, source));
+        if (pendingBatch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    public BatchResult writeAll(Stream<CustomerRecord> records) throws SQLException {
+        return writeAll(records.iterator());
+    }
+
+    public BatchResult writeAll(Iterator<CustomerRecord> records) throws SQLException {
+        while (records.hasNext()) {
+            add(records.next());
+        }
+        close();
+        return getResult();
+    }
+
+    public void flush() throws SQLException {
+        executePendingBatch();
+        if (uncommittedRows >= commitInterval) {
+            commit();
+        }
+    }
+
+    public void commit() throws SQLException {
+        executePendingBatch();
+        connection.commit();
+        commitCount++;
+        uncommittedRows = 0;
+    }
+
+    private void executePendingBatch() throws SQLException {
+        if (pendingBatch.isEmpty()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            for (PendingRow row : pendingBatch) {
+                bindInsert(insertStatement, row.record);
+                insertStatement.addBatch();
+            }
+            insertStatement.executeBatch();
+            insertedCount += pendingBatch.size();
+            Metrics.success(Metrics.Operation.BATCH_INSERT, started);
+        } catch (BatchUpdateException e) {
+            // Drivers disagree on what the update counts mean after a failure, so undo
+            // this batch and replay it row by row to pin the error to the exact rows
+            Metrics.failure(Metrics.Operation.BATCH_INSERT, started);
+            Metrics.retry(Metrics.Operation.BATCH_INSERT);
+            insertStatement.clearBatch();
+            connection.rollback(savepoint);
+            replayRowByRow();
+        }
+        batchCount++;
+        uncommittedRows += pendingBatch.size();
+        pendingBatch.clear();
+    }
+
+    private void replayRowByRow() throws SQLException {
+        for (PendingRow row : pendingBatch) {
+            long started = System.nanoTime();
+            try {
+                bindInsert(insertStatement, row.record);
+                insertStatement.executeUpdate();
+                insertedCount++;
+                Metrics.success(Metrics.Operation.INSERT, started);
+            } catch (SQLException e) {
+                Metrics.failure(Metrics.Operation.INSERT, started);
+                failures.add(new RowFailure(row.rowNumber, row.record, row.source, e.getMessage()));
+                failedCount++;
+            }
+        }
+    }
+
+    // ==========================================
+    // Results
+    // ==========================================
+    public BatchResult getResult() {
+        return new BatchResult(insertedCount, failures, failedCount, batchCount, commitCount,
+            (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    // Failures since the last call; they are no longer kept, so a long run can report
+    // them as it goes instead of holding every one until the end
+    public List<RowFailure> takeFailures() {
+        List<RowFailure> taken = new ArrayList<>(failures);
+        failures.clear();
+        return taken;
+    }
+
+    public long getInsertedCount() { return insertedCount; }
+    public long getFailureCount() { return failedCount; }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        try {
+            commit();
+        } finally {
+            closed = true;
+            insertStatement.close();
+            connection.setAutoCommit(originalAutoCommit);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class CustomerIdAllocator {
+    // ==========================================
+    // Allocator State
+    // ==========================================
+    // The sequence advances by a whole block per NEXTVAL, so every client that
+    // reserves a block owns [start, start + blockSize) exclusively. Unused IDs of
+    // a block are simply skipped when the application exits.
+    //
+    // The block size is the sequence's INCREMENT BY, read on the first reservation;
+    // the configured size only applies when this allocator creates the sequence.
+    // Trusting the setting would hand out overlapping blocks whenever it differs
+    // from the sequence, e.g. the app and the importer configured differently.
+    private static final String SEQUENCE_NAME = "customer_id_seq";
+    private static final String[] INCREMENT_SQL = {
+        "SELECT increment_by FROM user_sequences WHERE sequence_name = 'CUSTOMER_ID_SEQ'",
+        "SELECT increment FROM information_schema.sequences WHERE sequence_name = 'CUSTOMER_ID_SEQ'"
+    };
+
+    private final int configuredBlockSize;
+    private int blockSize;
+    private boolean incrementChecked;
+    private long nextId;
+    private long blockEnd;
+    private long blockStart;
+    private long blocksReserved;
+    private long idsIssued;
+
+    public CustomerIdAllocator(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be at least 1");
+        }
+        this.configuredBlockSize = blockSize;
+        this.blockSize = blockSize;
+    }
+
+    // ==========================================
+    // ID Allocation
+    // ==========================================
+    public synchronized long nextId(Connection connection) throws SQLException {
+        long started = System.nanoTime();
+        if (nextId >= blockEnd) {
+            try {
+                reserveBlock(connection);
+            } catch (SQLException e) {
+                Metrics.failure(Metrics.Operation.ID_ALLOCATION, started);
+                throw e;
+            }
+        }
+        idsIssued++;
+        Metrics.success(Metrics.Operation.ID_ALLOCATION, started);
+        return nextId++;
+    }
+
+    private void reserveBlock(Connection connection) throws SQLException {
+        long start;
+        try {
+            start = fetchSequenceValue(connection);
+        } catch (SQLException e) {
+            // First run against this schema: create the sequence past the existing rows
+            Metrics.retry(Metrics.Operation.ID_ALLOCATION);
+            createSequence(connection);
+            start = fetchSequenceValue(connection);
+        }
+        if (!incrementChecked) {
+            blockSize = readIncrement(connection);
+            incrementChecked = true;
+        }
+        blockStart = start;
+        nextId = start;
+        blockEnd = start + blockSize;
+        blocksReserved++;
+    }
+
+    private long fetchSequenceValue(Connection connection) throws SQLException {
+        String sql = "SELECT " + SEQUENCE_NAME + ".NEXTVAL FROM dual";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            if (!rs.next()) {
+                throw new SQLException("Sequence " + SEQUENCE_NAME + " returned no value");
+            }
+            return rs.getLong(1);
+        }
+    }
+
+    // Oracle's user_sequences first, then the standard view (H2)
+    private int readIncrement(Connection connection) throws SQLException {
+        SQLException failure = null;
+        for (String sql : INCREMENT_SQL) {
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                if (!rs.next()) {
+                    throw new SQLException("Sequence " + SEQUENCE_NAME + " not found in the catalog");
+                }
+                long increment = rs.getLong(1);
+                if (increment < 1 || increment > Integer.MAX_VALUE) {
+                    throw new SQLException("Sequence " + SEQUENCE_NAME + " has INCREMENT BY " + increment
+                        + "; ID blocks need a positive increment");
+                }
+                if (increment != configuredBlockSize) {
+                    System.err.println("Sequence " + SEQUENCE_NAME + " increments by " + increment
+                        + ", not the configured ims.ids.blockSize " + configuredBlockSize
+                        + "; using blocks of " + increment);
+                }
+                return (int) increment;
+            } catch (SQLException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        throw failure;
+    }
+
+    private void createSequence(Connection connection) throws SQLException {
+        long startWith = 1;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT NVL(MAX(id), 0) + 1 FROM customer_details")) {
+            if (rs.next()) {
+                startWith = rs.getLong(1);
+            }
+        }
+
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE SEQUENCE " + SEQUENCE_NAME + " START WITH " + startWith
+                + " INCREMENT BY " + blockSize + " NOCACHE");
+            System.out.println("Created sequence " + SEQUENCE_NAME + " starting at " + startWith);
+        } catch (SQLException e) {
+            // Another client may have created it in the meantime; the retry will tell
+            System.err.println("Could not create sequence " + SEQUENCE_NAME + ": " + e.getMessage());
+        }
+    }
+
+    // ==========================================
+    // Block Usage Metrics
+    // ==========================================
+    public synchronized int getBlockSize() { return blockSize; }
+    public synchronized long getBlocksReserved() { return blocksReserved; }
+    public synchronized long getIdsIssued() { return idsIssued; }
+
+    public synchronized int getUsedInCurrentBlock() {
+        return blocksReserved == 0 ? 0 : (int) (nextId - blockStart);
+    }
+
+    public synchronized int getRemainingInCurrentBlock() {
+        return (int) Math.max(0, blockEnd - nextId);
+    }
+
+    public synchronized String getStatsSummary() {
+        return String.format("IDs: block %d-%d, %d/%d used | %d blocks reserved, %d IDs issued",
+            blockStart, Math.max(blockStart, blockEnd - 1), getUsedInCurrentBlock(), blockSize,
+            blocksReserved, idsIssued);
+    }
+}
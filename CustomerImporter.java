@@ -0,0 +1,489 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CustomerImporter {
+    // ==========================================
+    // Import Settings
+    // ==========================================
+    private static final String[] COLUMNS = CustomerJson.FIELDS;
+    private static final int CHUNK_SIZE = 1000;
+
+    public enum Format { CSV, JSONL }
+
+    private final Path inputFile;
+    private final Format format;
+    private final Path errorFile;
+    private final int threads;
+    private final int batchSize;
+    private final int commitInterval;
+    private final boolean validateOnly;
+    private final PolicyNumberIndex policyNumbers = new PolicyNumberIndex();
+
+    // ==========================================
+    // Progress Counters
+    // ==========================================
+    private final AtomicLong rowsProcessed = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final AtomicLong rowsInserted = new AtomicLong();
+    private long startNanos;
+
+    public CustomerImporter(Path inputFile, Format format, Path errorFile, int threads,
+                            int batchSize, int commitInterval, boolean validateOnly) {
+        this.inputFile = inputFile;
+        this.format = format;
+        this.errorFile = errorFile;
+        this.threads = Math.max(1, threads);
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+        this.validateOnly = validateOnly;
+    }
+
+    // A raw input row; CSV rows are split by the reader, JSON lines are parsed by the workers
+    private static class RawRow {
+        final long lineNumber;
+        final String text;
+        final String[] values;
+
+        RawRow(long lineNumber, String text, String[] values) {
+            this.lineNumber = lineNumber;
+            this.text = text;
+            this.values = values;
+        }
+    }
+
+    private static class ChunkResult {
+        final List<RawRow> validRows = new ArrayList<>();
+        final List<CustomerRecord> validRecords = new ArrayList<>();
+        final List<RawRow> rejectedRows = new ArrayList<>();
+        final List<String> rejectReasons = new ArrayList<>();
+    }
+
+    // ==========================================
+    // Import Pipeline
+    // ==========================================
+    // The reader streams rows into fixed-size chunks, workers parse and validate
+    // chunks in parallel, and this thread drains finished chunks in input order
+    // into the batch writer. At most threads * 2 chunks are in flight, which keeps
+    // memory flat regardless of the file size.
+    public CustomerBatchWriter.BatchResult run(ConnectionPool pool, CustomerIdAllocator idAllocator)
+            throws IOException, SQLException {
+        startNanos = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "import-validator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "import-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        progress.scheduleAtFixedRate(() -> System.out.println(progressLine()), 2, 2, TimeUnit.SECONDS);
+
+        Connection connection = null;
+        CustomerBatchWriter writer = null;
+        try (BufferedReader reader = Files.newBufferedReader(inputFile, StandardCharsets.UTF_8);
+             BufferedWriter errors = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8)) {
+            errors.write("line,reason,record");
+            errors.newLine();
+
+            // Existing numbers are loaded once so duplicates are rejected without a query per row
+            if (validateOnly) {
+                policyNumbers.markReady();
+            } else {
+                policyNumbers.warm(pool);
+                connection = pool.getConnection();
+                writer = new CustomerBatchWriter(connection, idAllocator, batchSize, commitInterval);
+            }
+
+            RowSource source = format == Format.CSV ? new CsvRowSource(reader) : new JsonLineRowSource(reader);
+            Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+            List<RawRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            RawRow row;
+            while ((row = source.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    inFlight.add(submitChunk(workers, chunk, source.header()));
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                    if (inFlight.size() >= threads * 2) {
+                        drain(inFlight.poll(), writer, errors);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                inFlight.add(submitChunk(workers, chunk, source.header()));
+            }
+            while (!inFlight.isEmpty()) {
+                drain(inFlight.poll(), writer, errors);
+            }
+
+            if (writer == null) {
+                return new CustomerBatchWriter.BatchResult(0, new ArrayList<>(), 0, 0, 0, elapsedMillis());
+            }
+
+            writer.close();
+            writeDatabaseFailures(writer, errors);
+            CustomerBatchWriter.BatchResult result = writer.getResult();
+            rowsInserted.set(result.getInsertedCount());
+            return result;
+        } finally {
+            progress.shutdownNow();
+            workers.shutdownNow();
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    private Future<ChunkResult> submitChunk(ExecutorService workers, List<RawRow> chunk, Map<String, Integer> header) {
+        long startOfToday = CustomerValidator.startOfToday();
+        return workers.submit(() -> {
+            ChunkResult result = new ChunkResult();
+            for (RawRow row : chunk) {
+                try {
+                    CustomerRecord record = toRecord(row, header);
+                    List<CustomerValidator.ValidationResult> problems = CustomerValidator.validate(record, startOfToday);
+                    if (problems.isEmpty()) {
+                        result.validRows.add(row);
+                        result.validRecords.add(record);
+                    } else {
+                        result.rejectedRows.add(row);
+                        result.rejectReasons.add(CustomerValidator.joinMessages(problems, "; "));
+                    }
+                } catch (IllegalArgumentException e) {
+                    result.rejectedRows.add(row);
+                    result.rejectReasons.add(e.getMessage());
+                }
+            }
+            return result;
+        });
+    }
+
+    private void drain(Future<ChunkResult> future, CustomerBatchWriter writer, BufferedWriter errors)
+            throws IOException, SQLException {
+        ChunkResult result;
+        try {
+            result = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Validation worker failed", e.getCause());
+        }
+
+        // Chunks drain in input order, so the first occurrence of a policy number wins
+        long duplicates = 0;
+        for (int i = 0; i < result.validRecords.size(); i++) {
+            RawRow row = result.validRows.get(i);
+            CustomerRecord record = result.validRecords.get(i);
+            if (!policyNumbers.add(record.getPolicyNumber())) {
+                String reason = CustomerValidator.validatePolicyNumberUnique(record.getPolicyNumber(), policyNumbers).getMessage();
+                writeReject(errors, row.lineNumber, reason, row.text);
+                duplicates++;
+            } else if (writer != null) {
+                writer.add(row.lineNumber, record, row.text);
+            }
+        }
+        if (writer != null) {
+            rowsInserted.set(writer.getInsertedCount());
+            writeDatabaseFailures(writer, errors);
+        }
+        for (int i = 0; i < result.rejectedRows.size(); i++) {
+            RawRow rejected = result.rejectedRows.get(i);
+            writeReject(errors, rejected.lineNumber, result.rejectReasons.get(i), rejected.text);
+        }
+        rowsRejected.addAndGet(result.rejectedRows.size() + duplicates);
+        rowsProcessed.addAndGet(result.validRows.size() + result.rejectedRows.size());
+    }
+
+    // Rows the database refused in the batches written so far
+    private void writeDatabaseFailures(CustomerBatchWriter writer, BufferedWriter errors) throws IOException {
+        for (CustomerBatchWriter.RowFailure failure : writer.takeFailures()) {
+            writeReject(errors, failure.getRowNumber(), "Database error: " + failure.getMessage(),
+                failure.getSource());
+            rowsRejected.incrementAndGet();
+        }
+    }
+
+    private static void writeReject(BufferedWriter errors, long lineNumber, String reason, String text)
+            throws IOException {
+        errors.write(lineNumber + "," + csvQuote(reason) + "," + csvQuote(text));
+        errors.newLine();
+    }
+
+    // ==========================================
+    // Row Conversion
+    // ==========================================
+    private CustomerRecord toRecord(RawRow row, Map<String, Integer> header) {
+        if (format == Format.JSONL) {
+            return CustomerJson.fromJson(Json.parseObject(row.text));
+        }
+        String[] values = new String[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            int column = header.get(COLUMNS[i]);
+            values[i] = column < row.values.length ? row.values[column].trim() : "";
+        }
+        return new CustomerRecord(values[0], values[1], values[2], values[3], values[4], values[5],
+            CustomerJson.parseDate(values[6], COLUMNS[6]), CustomerJson.parseDate(values[7], COLUMNS[7]));
+    }
+
+    // ==========================================
+    // Row Sources
+    // ==========================================
+    private interface RowSource {
+        RawRow next() throws IOException;
+        Map<String, Integer> header();
+    }
+
+    private static class JsonLineRowSource implements RowSource {
+        private final BufferedReader reader;
+        private long lineNumber;
+
+        JsonLineRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public RawRow next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.trim().isEmpty()) {
+                    return new RawRow(lineNumber, line, null);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Map<String, Integer> header() {
+            return null;
+        }
+    }
+
+    private static class CsvRowSource implements RowSource {
+        private final BufferedReader reader;
+        private final Map<String, Integer> header = new HashMap<>();
+        private long lineNumber;
+
+        CsvRowSource(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            RawRow headerRow = next();
+            if (headerRow == null) {
+                throw new IOException("CSV file is empty");
+            }
+            for (int i = 0; i < headerRow.values.length; i++) {
+                header.put(headerRow.values[i].trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String column : COLUMNS) {
+                if (!header.containsKey(column)) {
+                    throw new IOException("CSV header is missing column '" + column + "'");
+                }
+            }
+        }
+
+        @Override
+        public Map<String, Integer> header() {
+            return header;
+        }
+
+        // Quoted fields may contain commas, doubled quotes and line breaks
+        @Override
+        public RawRow next() throws IOException {
+            String line = reader.readLine();
+            while (line != null && line.trim().isEmpty()) {
+                lineNumber++;
+                line = reader.readLine();
+            }
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            long firstLine = lineNumber;
+
+            List<String> values = new ArrayList<>(COLUMNS.length);
+            StringBuilder text = new StringBuilder(line);
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    line = reader.readLine();
+                    if (line == null) {
+                        throw new IOException("Unterminated quoted field starting on line " + firstLine);
+                    }
+                    lineNumber++;
+                    text.append('\n').append(line);
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i < line.length() && line.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            values.add(field.toString());
+            return new RawRow(firstLine, text.toString(), values.toArray(new String[0]));
+        }
+    }
+
+    private static String csvQuote(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    // ==========================================
+    // Progress Reporting
+    // ==========================================
+    private long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private String progressLine() {
+        long processed = rowsProcessed.get();
+        long elapsed = Math.max(1, elapsedMillis());
+        return String.format("Processed %,d rows (%,d inserted, %,d rejected) in %.1f s - %,.0f rows/s",
+            processed, rowsInserted.get(), rowsRejected.get(), elapsed / 1000.0, processed * 1000.0 / elapsed);
+    }
+
+    // ==========================================
+    // Command Line
+    // ==========================================
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            usage();
+        }
+
+        DatabaseConfig config;
+        try {
+            config = ConfigLoader.loadConfig();
+        } catch (ConfigException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        Path input = Paths.get(args[0]);
+        Format format = args[0].toLowerCase(Locale.ROOT).endsWith(".csv") ? Format.CSV : Format.JSONL;
+        Path errors = Paths.get(args[0] + ".rejects.csv");
+        int threads = Runtime.getRuntime().availableProcessors();
+        int batchSize = config.getBatchSize();
+        int commitInterval = config.getCommitInterval();
+        boolean validateOnly = false;
+
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            try {
+                switch (option) {
+                    case "--format": format = Format.valueOf(optionValue(args, ++i).toUpperCase(Locale.ROOT)); break;
+                    case "--errors": errors = Paths.get(optionValue(args, ++i)); break;
+                    case "--threads": threads = Integer.parseInt(optionValue(args, ++i)); break;
+                    case "--batch-size": batchSize = Integer.parseInt(optionValue(args, ++i)); break;
+                    case "--commit-interval": commitInterval = Integer.parseInt(optionValue(args, ++i)); break;
+                    case "--validate-only": validateOnly = true; break;
+                    default:
+                        System.err.println("Unknown option: " + option);
+                        usage();
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println("Invalid value for " + option + ": " + args[i]);
+                usage();
+            }
+        }
+
+        CustomerImporter importer = new CustomerImporter(input, format, errors, threads,
+            batchSize, commitInterval, validateOnly);
+        // Long imports can be watched live in JConsole under "ims"
+        Metrics.registerMBeans();
+        ConnectionPool pool = null;
+        try {
+            CustomerIdAllocator idAllocator = null;
+            if (!validateOnly) {
+                config.loadDriver();
+                pool = new ConnectionPool(config);
+                try (Connection connection = pool.getConnection()) {
+                    DatabaseSchema.ensureSchema(connection);
+                }
+                idAllocator = new CustomerIdAllocator(config.getIdBlockSize());
+            }
+            CustomerBatchWriter.BatchResult result = importer.run(pool, idAllocator);
+            System.out.println(importer.progressLine());
+            if (!validateOnly) {
+                System.out.println("Database: " + result);
+            }
+            System.out.println(importer.policyNumbers.getStatsSummary());
+            System.out.print(Metrics.dumpText());
+            if (!config.getMetricsDumpFile().isEmpty()) {
+                Metrics.writeDump(new File(config.getMetricsDumpFile()));
+                System.out.println("Metrics written to " + config.getMetricsDumpFile());
+            }
+            if (importer.rowsRejected.get() > 0) {
+                System.out.println("Rejected rows written to " + errors);
+            }
+        } catch (Exception e) {
+            System.err.println("Import failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            if (pool != null) {
+                pool.close();
+            }
+        }
+    }
+
+    private static String optionValue(String[] args, int i) {
+        if (i >= args.length) {
+            System.err.println("Missing value for " + args[i - 1]);
+            usage();
+        }
+        return args[i];
+    }
+
+    private static void usage() {
+        System.err.println("Usage: java CustomerImporter <file.csv|file.jsonl> [--format csv|jsonl]"
+            + " [--errors rejects.csv] [--threads N] [--batch-size N] [--commit-interval N] [--validate-only]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,80 @@
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Map;
+
+public final class CustomerJson {
+    // ==========================================
+    // Field Names
+    // ==========================================
+    // Shared by the importer's CSV header and JSONL lines and by the HTTP API,
+    // so an import line can be posted to the API unchanged.
+    public static final String[] FIELDS = {
+        "name", "email", "phone", "address", "policy_type", "policy_number", "start_date", "end_date"
+    };
+    private static final DateTimeFormatter[] DATE_FORMATS = {
+        DateTimeFormatter.ISO_LOCAL_DATE,
+        DateTimeFormatter.ofPattern("dd/MM/yyyy")
+    };
+
+    private CustomerJson() {
+    }
+
+    // ==========================================
+    // Reading
+    // ==========================================
+    // Missing fields become empty strings (or null dates) and are left for CustomerValidator
+    public static CustomerRecord fromJson(Map<String, Object> json) {
+        String[] values = new String[FIELDS.length];
+        for (int i = 0; i < FIELDS.length; i++) {
+            Object value = json.get(FIELDS[i]);
+            values[i] = value == null ? "" : value.toString().trim();
+        }
+        return new CustomerRecord(values[0], values[1], values[2], values[3], values[4], values[5],
+            parseDate(values[6], FIELDS[6]), parseDate(values[7], FIELDS[7]));
+    }
+
+    public static Date parseDate(String value, String field) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        for (DateTimeFormatter formatter : DATE_FORMATS) {
+            try {
+                LocalDate date = LocalDate.parse(value, formatter);
+                return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+            } catch (DateTimeParseException e) {
+                // try the next format
+            }
+        }
+        throw new IllegalArgumentException("Invalid " + field + " '" + value + "' (expected yyyy-MM-dd or dd/MM/yyyy)");
+    }
+
+    // ==========================================
+    // Writing
+    // ==========================================
+    // premiumCents below zero (no rate table for the type) is written as null
+    public static StringBuilder appendJson(StringBuilder sb, CustomerRecord record, long premiumCents) {
+        sb.append("{\"id\":").append(record.getId())
+            .append(",\"name\":").append(Json.quote(record.getName()))
+            .append(",\"email\":").append(Json.quote(record.getEmail()))
+            .append(",\"phone\":").append(Json.quote(record.getPhone()))
+            .append(",\"address\":").append(Json.quote(record.getAddress()))
+            .append(",\"policy_type\":").append(Json.quote(record.getPolicyType()))
+            .append(",\"policy_number\":").append(Json.quote(record.getPolicyNumber()))
+            .append(",\"start_date\":").append(Json.quote(formatDate(record.getStartDate())))
+            .append(",\"end_date\":").append(Json.quote(formatDate(record.getEndDate())))
+            .append(",\"premium_cents\":").append(premiumCents < 0 ? "null" : Long.toString(premiumCents))
+            .append('}');
+        return sb;
+    }
+
+    private static String formatDate(Date date) {
+        if (date == null) {
+            return null;
+        }
+        return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate().toString();
+    }
+}
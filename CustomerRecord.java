@@ -0,0 +1,47 @@
+import java.util.Date;
+
+public class CustomerRecord {
+    private long id;
+    private String name;
+    private String email;
+    private String phone;
+    private String address;
+    private String policyType;
+    private String policyNumber;
+    private Date startDate;
+    private Date endDate;
+
+    public CustomerRecord(String name, String email, String phone, String address,
+                          String policyType, String policyNumber, Date startDate, Date endDate) {
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.address = address;
+        this.policyType = policyType;
+        this.policyNumber = policyNumber;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    // Getters
+    public long getId() { return id; }
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public String getPhone() { return phone; }
+    public String getAddress() { return address; }
+    public String getPolicyType() { return policyType; }
+    public String getPolicyNumber() { return policyNumber; }
+    public Date getStartDate() { return startDate; }
+    public Date getEndDate() { return endDate; }
+
+    // Setters
+    public void setId(long id) { this.id = id; }
+    public void setName(String name) { this.name = name; }
+    public void setEmail(String email) { this.email = email; }
+    public void setPhone(String phone) { this.phone = phone; }
+    public void setAddress(String address) { this.address = address; }
+    public void setPolicyType(String policyType) { this.policyType = policyType; }
+    public void setPolicyNumber(String policyNumber) { this.policyNumber = policyNumber; }
+    public void setStartDate(Date startDate) { this.startDate = startDate; }
+    public void setEndDate(Date endDate) { this.endDate = endDate; }
+}
@@ -0,0 +1,149 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CustomerSearch {
+    // ==========================================
+    // Search Filter
+    // ==========================================
+    // Blank fields are ignored. Text fields match by prefix so the id and
+    // column indexes stay usable; policy type must match exactly.
+    public static class Filter {
+        private final String name;
+        private final String email;
+        private final String phone;
+        private final String policyType;
+        private final String policyNumber;
+
+        public Filter(String name, String email, String phone, String policyType, String policyNumber) {
+            this.name = blankToNull(name);
+            this.email = blankToNull(email);
+            this.phone = blankToNull(phone);
+            this.policyType = blankToNull(policyType);
+            this.policyNumber = blankToNull(policyNumber);
+        }
+
+        public static Filter all() {
+            return new Filter(null, null, null, null, null);
+        }
+
+        public String getName() { return name; }
+        public String getEmail() { return email; }
+        public String getPhone() { return phone; }
+        public String getPolicyType() { return policyType; }
+        public String getPolicyNumber() { return policyNumber; }
+
+        private static String blankToNull(String value) {
+            return value == null || value.trim().isEmpty() ? null : value.trim();
+        }
+    }
+
+    // ==========================================
+    // Keyset Queries
+    // ==========================================
+    private static final String SELECT_SQL = "SELECT id, name, email, phone, address, policy_type, "
+        + "policy_number, start_date, end_date FROM customer_details WHERE id > ?";
+    private static final String BY_ID_SQL = "SELECT id, name, email, phone, address, policy_type, "
+        + "policy_number, start_date, end_date FROM customer_details WHERE id = ?";
+    private static final String BY_POLICY_NUMBER_SQL = "SELECT id, name, email, phone, address, policy_type, "
+        + "policy_number, start_date, end_date FROM customer_details WHERE policy_number = ? "
+        + "ORDER BY id FETCH FIRST 1 ROWS ONLY";
+
+    private final ConnectionPool connectionPool;
+
+    public CustomerSearch(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    // Seeks past afterId on the primary key instead of using OFFSET, so every
+    // page costs the same no matter how deep the user has scrolled
+    public List<CustomerRecord> findPage(Filter filter, long afterId, int limit) throws SQLException {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<String> params = new ArrayList<>(5);
+        if (filter.getName() != null) {
+            sql.append(" AND UPPER(name) LIKE ? ESCAPE '\\'");
+            params.add(prefixPattern(filter.getName().toUpperCase()));
+        }
+        if (filter.getEmail() != null) {
+            sql.append(" AND LOWER(email) LIKE ? ESCAPE '\\'");
+            params.add(prefixPattern(filter.getEmail().toLowerCase()));
+        }
+        if (filter.getPhone() != null) {
+            sql.append(" AND phone LIKE ? ESCAPE '\\'");
+            params.add(prefixPattern(filter.getPhone()));
+        }
+        if (filter.getPolicyType() != null) {
+            sql.append(" AND policy_type = ?");
+            params.add(filter.getPolicyType());
+        }
+        if (filter.getPolicyNumber() != null) {
+            sql.append(" AND policy_number LIKE ? ESCAPE '\\'");
+            params.add(prefixPattern(filter.getPolicyNumber().toUpperCase()));
+        }
+        sql.append(" ORDER BY id FETCH FIRST ? ROWS ONLY");
+
+        try (Connection connection = connectionPool.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            pstmt.setLong(index++, afterId);
+            for (String param : params) {
+                pstmt.setString(index++, param);
+            }
+            pstmt.setInt(index, limit);
+            pstmt.setFetchSize(limit);
+
+            List<CustomerRecord> page = new ArrayList<>(limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    page.add(readRecord(rs));
+                }
+            }
+            return page;
+        }
+    }
+
+    // ==========================================
+    // Single-Record Lookups
+    // ==========================================
+    public CustomerRecord findById(long id) throws SQLException {
+        return findOne(BY_ID_SQL, Long.valueOf(id));
+    }
+
+    // Returns the oldest record when more than one customer holds the number
+    public CustomerRecord findByPolicyNumber(String policyNumber) throws SQLException {
+        return findOne(BY_POLICY_NUMBER_SQL, policyNumber);
+    }
+
+    private CustomerRecord findOne(String sql, Object key) throws SQLException {
+        try (Connection connection = connectionPool.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setObject(1, key);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? readRecord(rs) : null;
+            }
+        }
+    }
+
+    private static CustomerRecord readRecord(ResultSet rs) throws SQLException {
+        CustomerRecord record = new CustomerRecord(
+            rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+            rs.getString(6), rs.getString(7), rs.getDate(8), rs.getDate(9));
+        record.setId(rs.getLong(1));
+        return record;
+    }
+
+    private static String prefixPattern(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 1);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.append('%').toString();
+    }
+}
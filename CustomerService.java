@@ -0,0 +1,411 @@
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class CustomerService {
+    // ==========================================
+    // Results
+    // ==========================================
+    public enum Status { CREATED, INVALID, DUPLICATE, FAILED }
+
+    // Outcome for one customer: the saved record, the checks that failed, or the database error
+    public static class CreateResult {
+        private final Status status;
+        private final CustomerRecord record;
+        private final List<CustomerValidator.ValidationResult> failures;
+        private final String errorMessage;
+        private final long premiumCents;
+
+        private CreateResult(Status status, CustomerRecord record, List<CustomerValidator.ValidationResult> failures,
+                             String errorMessage, long premiumCents) {
+            this.status = status;
+            this.record = record;
+            this.failures = failures;
+            this.errorMessage = errorMessage;
+            this.premiumCents = premiumCents;
+        }
+
+        public boolean isCreated() { return status == Status.CREATED; }
+        public Status getStatus() { return status; }
+        public CustomerRecord getRecord() { return record; }
+        public List<CustomerValidator.ValidationResult> getFailures() { return failures; }
+        public String getErrorMessage() { return errorMessage; }
+        public long getPremiumCents() { return premiumCents; }
+
+        // Validation messages joined, or the database error
+        public String getMessage(String separator) {
+            return errorMessage != null ? errorMessage : CustomerValidator.joinMessages(failures, separator);
+        }
+    }
+
+    // ==========================================
+    // Dependencies
+    // ==========================================
+    // The Swing client, the HTTP API and tests all build one of these; nothing here touches the UI
+    private final ConnectionPool connectionPool;
+    private final CustomerIdAllocator idAllocator;
+    private final CustomerSearch customerSearch;
+    private final PolicyNumberIndex policyNumbers;
+    private final PolicyCache policyCache;
+    private final PremiumEngine premiumEngine;
+    private final DatabaseConfig config;
+
+    public CustomerService(ConnectionPool connectionPool, CustomerIdAllocator idAllocator,
+                           PolicyNumberIndex policyNumbers, PolicyCache policyCache,
+                           PremiumEngine premiumEngine, DatabaseConfig config) {
+        this.connectionPool = connectionPool;
+        this.idAllocator = idAllocator;
+        this.customerSearch = new CustomerSearch(connectionPool);
+        this.policyNumbers = policyNumbers;
+        this.policyCache = policyCache;
+        this.premiumEngine = premiumEngine;
+        this.config = config;
+    }
+
+    // ==========================================
+    // Creating Customers
+    // ==========================================
+    // Validates, reserves the policy number and inserts the row. Invalid and duplicate
+    // records come back as results; only database failures are thrown.
+    public CreateResult create(CustomerRecord record) throws SQLException {
+        CreateResult rejected = checkAndReserve(record, CustomerValidator.startOfToday());
+        if (rejected != null) {
+            return rejected;
+        }
+        try {
+            save(record);
+        } catch (SQLException | RuntimeException e) {
+            policyNumbers.remove(record.getPolicyNumber());
+            throw e;
+        }
+        return created(record);
+    }
+
+    // One connection and one CustomerBatchWriter for the whole list; results are in
+    // input order. Rows the database rejects are reported without failing the rest.
+    public List<CreateResult> createAll(List<CustomerRecord> records) throws SQLException {
+        List<CreateResult> results = new ArrayList<>(Collections.<CreateResult>nCopies(records.size(), null));
+        List<Integer> accepted = new ArrayList<>(records.size());
+        long startOfToday = CustomerValidator.startOfToday();
+        for (int i = 0; i < records.size(); i++) {
+            CreateResult rejected = checkAndReserve(records.get(i), startOfToday);
+            if (rejected != null) {
+                results.set(i, rejected);
+            } else {
+                accepted.add(i);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return results;
+        }
+
+        CustomerBatchWriter.BatchResult batch;
+        try (Connection connection = connectionPool.getConnection()) {
+            CustomerBatchWriter writer = new CustomerBatchWriter(connection, idAllocator,
+                config.getBatchSize(), accepted.size());
+            for (int index : accepted) {
+                writer.add(index, records.get(index));
+            }
+            writer.close();
+            batch = writer.getResult();
+        } catch (SQLException | RuntimeException e) {
+            for (int index : accepted) {
+                policyNumbers.remove(records.get(index).getPolicyNumber());
+            }
+            throw e;
+        }
+
+        for (CustomerBatchWriter.RowFailure failure : batch.getFailures()) {
+            int index = (int) failure.getRowNumber();
+            policyNumbers.remove(records.get(index).getPolicyNumber());
+            results.set(index, new CreateResult(Status.FAILED, records.get(index),
+                Collections.<CustomerValidator.ValidationResult>emptyList(), failure.getMessage(), PremiumEngine.NO_RATE));
+        }
+        for (int index : accepted) {
+            if (results.get(index) == null) {
+                policyCache.put(records.get(index));
+                results.set(index, created(records.get(index)));
+            }
+        }
+        return results;
+    }
+
+    // ==========================================
+    // Replaying Queued Submissions
+    // ==========================================
+    // For OfflineQueue. Each row goes in with its idempotency key, in the same
+    // transaction, so a batch that is replayed again (the app stopped between the
+    // commit and the queue recording it) is recognised instead of inserted twice.
+    private static final String CREATE_APPLIED_SQL = "CREATE TABLE applied_submissions ("
+        + "idempotency_key VARCHAR2(36) PRIMARY KEY, "
+        + "customer_id NUMBER NOT NULL, "
+        + "applied_at TIMESTAMP NOT NULL)";
+    private static final String INSERT_APPLIED_SQL = "INSERT INTO applied_submissions "
+        + "(idempotency_key, customer_id, applied_at) VALUES (?, ?, ?)";
+    private static final int MAX_IN_LIST = 1000;
+    private volatile boolean appliedTableReady;
+
+    // keys, records and queuedDays are parallel lists; results are in the same order.
+    // Each record is validated against the start of the day it was queued on, so a
+    // submission accepted before midnight is not turned away for a start date that
+    // has since passed. One transaction for the batch; if the database refuses a row
+    // the batch is redone row by row so only that row fails. Lost connections are thrown.
+    public List<CreateResult> createQueued(List<String> keys, List<CustomerRecord> records,
+                                           List<Long> queuedDays) throws SQLException {
+        if (records.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<CreateResult> results = new ArrayList<>(Collections.<CreateResult>nCopies(records.size(), null));
+        List<Integer> accepted = new ArrayList<>(records.size());
+        try (Connection connection = connectionPool.getConnection()) {
+            if (!appliedTableReady) {
+                // The queue may replay before start-up has created the schema on a new database
+                DatabaseSchema.ensureSchema(connection);
+                ensureAppliedTable(connection);
+                appliedTableReady = true;
+            }
+            Map<String, Long> applied = findApplied(connection, keys);
+            for (int i = 0; i < records.size(); i++) {
+                CustomerRecord record = records.get(i);
+                Long id = applied.get(keys.get(i));
+                if (id != null) {
+                    record.setId(id);
+                    results.set(i, created(record));
+                    continue;
+                }
+                CreateResult rejected = checkAndReserve(record, queuedDays.get(i));
+                if (rejected != null) {
+                    results.set(i, rejected);
+                } else {
+                    accepted.add(i);
+                }
+            }
+            if (!accepted.isEmpty()) {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    insertQueued(connection, keys, records, accepted, results);
+                } catch (SQLException | RuntimeException e) {
+                    // Turning auto-commit back on would commit whatever half got through
+                    rollbackQuietly(connection);
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            for (int index : accepted) {
+                if (results.get(index) == null) {
+                    policyNumbers.remove(records.get(index).getPolicyNumber());
+                }
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    private void insertQueued(Connection connection, List<String> keys, List<CustomerRecord> records,
+                              List<Integer> accepted, List<CreateResult> results) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement insert = connection.prepareStatement(CustomerBatchWriter.INSERT_SQL);
+             PreparedStatement mark = connection.prepareStatement(INSERT_APPLIED_SQL)) {
+            for (int index : accepted) {
+                records.get(index).setId(idAllocator.nextId(connection));
+            }
+            long started = System.nanoTime();
+            try {
+                for (int index : accepted) {
+                    bindQueued(insert, mark, keys.get(index), records.get(index), now);
+                    insert.addBatch();
+                    mark.addBatch();
+                }
+                insert.executeBatch();
+                mark.executeBatch();
+                connection.commit();
+                Metrics.success(Metrics.Operation.BATCH_INSERT, started);
+            } catch (BatchUpdateException e) {
+                Metrics.failure(Metrics.Operation.BATCH_INSERT, started);
+                Metrics.retry(Metrics.Operation.BATCH_INSERT);
+                connection.rollback();
+                insert.clearBatch();
+                mark.clearBatch();
+                insertOneByOne(connection, insert, mark, keys, records, accepted, results, now);
+                return;
+            }
+        }
+        for (int index : accepted) {
+            policyCache.put(records.get(index));
+            results.set(index, created(records.get(index)));
+        }
+    }
+
+    // Only reached when a batch was refused; the IDs from the batch are reused
+    private void insertOneByOne(Connection connection, PreparedStatement insert, PreparedStatement mark,
+                                List<String> keys, List<CustomerRecord> records, List<Integer> accepted,
+                                List<CreateResult> results, Timestamp now) throws SQLException {
+        for (int index : accepted) {
+            CustomerRecord record = records.get(index);
+            long started = System.nanoTime();
+            try {
+                bindQueued(insert, mark, keys.get(index), record, now);
+                insert.executeUpdate();
+                mark.executeUpdate();
+                connection.commit();
+                Metrics.success(Metrics.Operation.INSERT, started);
+            } catch (SQLException e) {
+                Metrics.failure(Metrics.Operation.INSERT, started);
+                connection.rollback();
+                // A connection that still answers refused this row; anything else is an outage
+                if (!connection.isValid(5)) {
+                    throw e;
+                }
+                policyNumbers.remove(record.getPolicyNumber());
+                results.set(index, new CreateResult(Status.FAILED, record,
+                    Collections.<CustomerValidator.ValidationResult>emptyList(), e.getMessage(), PremiumEngine.NO_RATE));
+                continue;
+            }
+            policyCache.put(record);
+            results.set(index, created(record));
+        }
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Rollback failed: " + e.getMessage());
+        }
+    }
+
+    private static void bindQueued(PreparedStatement insert, PreparedStatement mark, String key,
+                                   CustomerRecord record, Timestamp now) throws SQLException {
+        CustomerBatchWriter.bindInsert(insert, record);
+        mark.setString(1, key);
+        mark.setLong(2, record.getId());
+        mark.setTimestamp(3, now);
+    }
+
+    // Looked up MAX_IN_LIST keys at a time: Oracle refuses longer IN lists (ORA-01795)
+    private static Map<String, Long> findApplied(Connection connection, List<String> keys) throws SQLException {
+        Map<String, Long> applied = new HashMap<>();
+        for (int from = 0; from < keys.size(); from += MAX_IN_LIST) {
+            List<String> chunk = keys.subList(from, Math.min(keys.size(), from + MAX_IN_LIST));
+            StringBuilder sql = new StringBuilder("SELECT idempotency_key, customer_id FROM applied_submissions "
+                + "WHERE idempotency_key IN (");
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(')');
+            try (PreparedStatement pstmt = connection.prepareStatement(sql.toString())) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pstmt.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        applied.put(rs.getString(1), rs.getLong(2));
+                    }
+                }
+            }
+        }
+        return applied;
+    }
+
+    private static void ensureAppliedTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeQuery("SELECT 1 FROM applied_submissions WHERE 1 = 0").close();
+        } catch (SQLException missing) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute(CREATE_APPLIED_SQL);
+                System.out.println("Created table applied_submissions");
+            }
+        }
+    }
+
+    private CreateResult checkAndReserve(CustomerRecord record, long startOfToday) {
+        List<CustomerValidator.ValidationResult> failures = CustomerValidator.validate(record, startOfToday);
+        if (!failures.isEmpty()) {
+            return new CreateResult(Status.INVALID, record, failures, null, PremiumEngine.NO_RATE);
+        }
+        CustomerValidator.ValidationResult reserved = CustomerValidator.reservePolicyNumber(
+            record.getPolicyNumber(), policyNumbers);
+        if (!reserved.isValid()) {
+            return new CreateResult(Status.DUPLICATE, record, Collections.singletonList(reserved), null,
+                PremiumEngine.NO_RATE);
+        }
+        return null;
+    }
+
+    private CreateResult created(CustomerRecord record) {
+        return new CreateResult(Status.CREATED, record, Collections.<CustomerValidator.ValidationResult>emptyList(),
+            null, premiumEngine.quoteCents(record));
+    }
+
+    private void save(CustomerRecord record) throws SQLException {
+        try (Connection connection = connectionPool.getConnection()) {
+            // Take the next ID from the block reserved in memory
+            record.setId(idAllocator.nextId(connection));
+
+            long started = System.nanoTime();
+            try (PreparedStatement pstmt = connection.prepareStatement(CustomerBatchWriter.INSERT_SQL)) {
+                CustomerBatchWriter.bindInsert(pstmt, record);
+                pstmt.executeUpdate();
+                Metrics.success(Metrics.Operation.INSERT, started);
+            } catch (SQLException e) {
+                Metrics.failure(Metrics.Operation.INSERT, started);
+                throw e;
+            }
+        }
+        // Write-through, so the new customer can be looked up without a round trip
+        policyCache.put(record);
+    }
+
+    // ==========================================
+    // Lookups
+    // ==========================================
+    // A bare number is taken as a customer ID, anything else as a policy number
+    public CustomerRecord find(String key) throws SQLException {
+        String trimmed = key.trim();
+        if (isCustomerId(trimmed)) {
+            long id = Long.parseLong(trimmed);
+            return policyCache.getById(id, () -> customerSearch.findById(id));
+        }
+        String policyNumber = trimmed.toUpperCase(Locale.ROOT);
+        return policyCache.getByPolicyNumber(policyNumber, () -> customerSearch.findByPolicyNumber(policyNumber));
+    }
+
+    // 1 to 18 ASCII digits, so it always fits a long; checked without a regex
+    private static boolean isCustomerId(String key) {
+        if (key.isEmpty() || key.length() > 18) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public List<CustomerRecord> search(CustomerSearch.Filter filter, long afterId, int limit) throws SQLException {
+        return customerSearch.findPage(filter, afterId, limit);
+    }
+
+    public CustomerSearch getCustomerSearch() {
+        return customerSearch;
+    }
+
+    public long quoteCents(CustomerRecord record) {
+        return premiumEngine.quoteCents(record);
+    }
+}
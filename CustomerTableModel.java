@@ -0,0 +1,177 @@
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+public class CustomerTableModel extends AbstractTableModel {
+    // ==========================================
+    // Paging State
+    // ==========================================
+    // Rows are fetched a page at a time as the table asks for them. Only the id
+    // each page starts after is kept for every page seen; the rows themselves
+    // live in a small LRU and are fetched again by seeking if they were evicted.
+    static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 10;
+    private static final String[] COLUMNS = {
+        "ID", "Name", "Email", "Phone", "Address", "Policy Type", "Policy Number", "Start Date", "End Date"
+    };
+
+    private final PersistenceExecutor executor;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+    private final Map<Integer, CustomerRecord[]> pages = new LinkedHashMap<Integer, CustomerRecord[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CustomerRecord[]> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Set<Integer> loadingPages = new HashSet<>();
+
+    private CustomerSearch search;
+    private CustomerSearch.Filter filter;
+    private long[] pageAfterIds = new long[16];
+    private int knownPages;
+    private int rowCount;
+    private boolean hasMore;
+    private int generation;
+    private PageListener pageListener;
+
+    public interface PageListener {
+        void onPageLoaded(int loadedRows, boolean hasMore, long elapsedMillis);
+        void onPageFailed(Throwable error);
+    }
+
+    public CustomerTableModel(PersistenceExecutor executor) {
+        this.executor = executor;
+    }
+
+    public void setPageListener(PageListener pageListener) {
+        this.pageListener = pageListener;
+    }
+
+    // Starts a new search; results of requests for the previous filter are dropped
+    public void search(CustomerSearch search, CustomerSearch.Filter filter) {
+        this.search = search;
+        this.filter = filter;
+        generation++;
+        pages.clear();
+        loadingPages.clear();
+        knownPages = 1;
+        rowCount = 0;
+        hasMore = true;
+        fireTableDataChanged();
+        requestPage(0);
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    public CustomerRecord getRecord(int row) {
+        CustomerRecord[] page = pages.get(row / PAGE_SIZE);
+        return page == null || row % PAGE_SIZE >= page.length ? null : page[row % PAGE_SIZE];
+    }
+
+    // ==========================================
+    // Table Model
+    // ==========================================
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int pageIndex = row / PAGE_SIZE;
+        // Reaching the last loaded page pulls in the one after it
+        if (hasMore && pageIndex >= knownPages - 2) {
+            requestPage(knownPages - 1);
+        }
+        CustomerRecord record = getRecord(row);
+        if (record == null) {
+            requestPage(pageIndex);
+            return column == 1 ? "Loading..." : "";
+        }
+        switch (column) {
+            case 0: return record.getId();
+            case 1: return record.getName();
+            case 2: return record.getEmail();
+            case 3: return record.getPhone();
+            case 4: return record.getAddress();
+            case 5: return record.getPolicyType();
+            case 6: return record.getPolicyNumber();
+            case 7: return record.getStartDate() == null ? "" : dateFormat.format(record.getStartDate());
+            case 8: return record.getEndDate() == null ? "" : dateFormat.format(record.getEndDate());
+            default: return "";
+        }
+    }
+
+    // ==========================================
+    // Page Loading
+    // ==========================================
+    private void requestPage(int pageIndex) {
+        if (pageIndex >= knownPages || pages.containsKey(pageIndex) || !loadingPages.add(pageIndex)) {
+            return;
+        }
+        int requestGeneration = generation;
+        CustomerSearch requestSearch = search;
+        CustomerSearch.Filter requestFilter = filter;
+        long afterId = pageAfterIds[pageIndex];
+        long start = System.nanoTime();
+        executor.submit(() -> requestSearch.findPage(requestFilter, afterId, PAGE_SIZE))
+            .whenComplete((rows, error) -> SwingUtilities.invokeLater(() -> {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loadingPages.remove(pageIndex);
+                if (error != null) {
+                    if (pageListener != null) {
+                        pageListener.onPageFailed(error);
+                    }
+                    return;
+                }
+                pageLoaded(pageIndex, rows, (System.nanoTime() - start) / 1_000_000);
+            }));
+    }
+
+    private void pageLoaded(int pageIndex, List<CustomerRecord> rows, long elapsedMillis) {
+        pages.put(pageIndex, rows.toArray(new CustomerRecord[0]));
+        int firstRow = pageIndex * PAGE_SIZE;
+
+        if (firstRow < rowCount) {
+            // An evicted page came back; its rows are already counted
+            fireTableRowsUpdated(firstRow, Math.min(rowCount, firstRow + PAGE_SIZE) - 1);
+            return;
+        }
+
+        // The first load of the last known page extends the table
+        hasMore = rows.size() == PAGE_SIZE;
+        if (hasMore) {
+            if (knownPages == pageAfterIds.length) {
+                pageAfterIds = Arrays.copyOf(pageAfterIds, pageAfterIds.length * 2);
+            }
+            pageAfterIds[knownPages++] = rows.get(rows.size() - 1).getId();
+        }
+        rowCount = firstRow + rows.size();
+        if (rowCount > firstRow) {
+            fireTableRowsInserted(firstRow, rowCount - 1);
+        }
+        if (pageListener != null) {
+            pageListener.onPageLoaded(rowCount, hasMore, elapsedMillis);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class CustomerValidator {
+    // ==========================================
+    // Fields and Results
+    // ==========================================
+    public enum Field { NAME, EMAIL, PHONE, ADDRESS, POLICY_TYPE, POLICY_NUMBER, START_DATE, END_DATE }
+
+    // Results are immutable and created once per rule, so checking a value never allocates
+    public static final class ValidationResult {
+        private final Field field;
+        private final String message;
+
+        private ValidationResult(Field field, String message) {
+            this.field = field;
+            this.message = message;
+        }
+
+        public boolean isValid() { return message == null; }
+        public Field getField() { return field; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return isValid() ? field + ": valid" : field + ": " + message;
+        }
+    }
+
+    // ==========================================
+    // Declarative Rules
+    // ==========================================
+    private static final class Rule {
+        final Field field;
+        final Pattern pattern;
+        final int minLength;
+        final ValidationResult valid;
+        final ValidationResult invalid;
+
+        Rule(Field field, String regex, int minLength, String message) {
+            this.field = field;
+            this.pattern = regex == null ? null : Pattern.compile(regex);
+            this.minLength = minLength;
+            this.valid = new ValidationResult(field, null);
+            this.invalid = new ValidationResult(field, message);
+        }
+    }
+
+    private static final Rule[] RULES = new Rule[Field.values().length];
+
+    static {
+        rule(Field.NAME, "^[a-zA-Z\\s]{2,50}$", 1,
+            "Name must be 2-50 characters long and contain only letters and spaces");
+        rule(Field.EMAIL, "^[A-Za-z0-9+_.-]+@(.+)$", 1,
+            "Please enter a valid email address");
+        rule(Field.PHONE, "^\\d{10}$", 1,
+            "Phone number must be 10 digits");
+        rule(Field.ADDRESS, null, 5,
+            "Address must be at least 5 characters long");
+        rule(Field.POLICY_TYPE, null, 1,
+            "Please select a policy type");
+        rule(Field.POLICY_NUMBER, "^[A-Z]{2}\\d{6}$", 1,
+            "Policy number must be in format: XX123456 (2 letters followed by 6 digits)");
+    }
+
+    private static void rule(Field field, String regex, int minLength, String message) {
+        RULES[field.ordinal()] = new Rule(field, regex, minLength, message);
+    }
+
+    private static final ValidationResult POLICY_NUMBER_TAKEN = new ValidationResult(Field.POLICY_NUMBER, "Policy number is already in use");
+    private static final ValidationResult START_DATE_VALID = new ValidationResult(Field.START_DATE, null);
+    private static final ValidationResult START_DATE_MISSING = new ValidationResult(Field.START_DATE, "Please select a start date");
+    private static final ValidationResult START_DATE_PAST = new ValidationResult(Field.START_DATE, "Start date cannot be in the past");
+    private static final ValidationResult END_DATE_VALID = new ValidationResult(Field.END_DATE, null);
+    private static final ValidationResult END_DATE_MISSING = new ValidationResult(Field.END_DATE, "Please select an end date");
+    private static final ValidationResult END_DATE_BEFORE_START = new ValidationResult(Field.END_DATE, "End date must be after start date");
+
+    // Matchers are reset rather than recreated; one set per thread keeps parallel imports safe
+    private static final ThreadLocal<Matcher[]> MATCHERS = ThreadLocal.withInitial(() -> {
+        Matcher[] matchers = new Matcher[RULES.length];
+        for (int i = 0; i < RULES.length; i++) {
+            if (RULES[i] != null && RULES[i].pattern != null) {
+                matchers[i] = RULES[i].pattern.matcher("");
+            }
+        }
+        return matchers;
+    });
+
+    private CustomerValidator() {
+    }
+
+    // ==========================================
+    // Field Validation
+    // ==========================================
+    // Used per keystroke by the form; surrounding whitespace is ignored like on submit
+    public static ValidationResult validateField(Field field, String value) {
+        Rule rule = RULES[field.ordinal()];
+        if (rule == null) {
+            throw new IllegalArgumentException(field + " is validated with validateDates");
+        }
+        String text = value == null ? "" : value.trim();
+        if (text.length() < rule.minLength) {
+            return rule.invalid;
+        }
+        if (rule.pattern != null && !MATCHERS.get()[field.ordinal()].reset(text).matches()) {
+            return rule.invalid;
+        }
+        return rule.valid;
+    }
+
+    // Answers from memory; until the index is warmed every number passes
+    public static ValidationResult validatePolicyNumberUnique(String policyNumber, PolicyNumberIndex index) {
+        Rule rule = RULES[Field.POLICY_NUMBER.ordinal()];
+        if (index == null || !index.isReady()) {
+            return rule.valid;
+        }
+        return index.contains(policyNumber.trim()) ? POLICY_NUMBER_TAKEN : rule.valid;
+    }
+
+    // For an answer that came from somewhere other than the index, e.g. the database
+    public static ValidationResult policyNumberUniqueness(boolean taken) {
+        return taken ? POLICY_NUMBER_TAKEN : RULES[Field.POLICY_NUMBER.ordinal()].valid;
+    }
+
+    // Claims the number for a save about to happen. Unlike the check above this also
+    // works before warm-up, since it only has to beat other saves in this process.
+    public static ValidationResult reservePolicyNumber(String policyNumber, PolicyNumberIndex index) {
+        return index.add(policyNumber.trim()) ? RULES[Field.POLICY_NUMBER.ordinal()].valid : POLICY_NUMBER_TAKEN;
+    }
+
+    // Dates are compared by day, since the form and imported rows carry no meaningful time of day
+    public static ValidationResult validateStartDate(Date startDate, long startOfToday) {
+        if (startDate == null) {
+            return START_DATE_MISSING;
+        }
+        return startDate.getTime() < startOfToday ? START_DATE_PAST : START_DATE_VALID;
+    }
+
+    public static ValidationResult validateEndDate(Date startDate, Date endDate) {
+        if (endDate == null) {
+            return END_DATE_MISSING;
+        }
+        return startDate != null && endDate.before(startDate) ? END_DATE_BEFORE_START : END_DATE_VALID;
+    }
+
+    // ==========================================
+    // Record Validation
+    // ==========================================
+    // Returns the failed checks in form order; an empty list means the record is valid
+    public static List<ValidationResult> validate(CustomerRecord record) {
+        return validate(record, startOfToday());
+    }
+
+    public static List<ValidationResult> validate(CustomerRecord record, long startOfToday) {
+        long started = System.nanoTime();
+        List<ValidationResult> failures = null;
+        failures = collect(failures, validateField(Field.NAME, record.getName()));
+        failures = collect(failures, validateField(Field.EMAIL, record.getEmail()));
+        failures = collect(failures, validateField(Field.PHONE, record.getPhone()));
+        failures = collect(failures, validateField(Field.ADDRESS, record.getAddress()));
+        failures = collect(failures, validateField(Field.POLICY_TYPE, record.getPolicyType()));
+        failures = collect(failures, validateField(Field.POLICY_NUMBER, record.getPolicyNumber()));
+        failures = collect(failures, validateStartDate(record.getStartDate(), startOfToday));
+        failures = collect(failures, validateEndDate(record.getStartDate(), record.getEndDate()));
+        if (failures == null) {
+            Metrics.success(Metrics.Operation.VALIDATION, started);
+            return Collections.emptyList();
+        }
+        Metrics.failure(Metrics.Operation.VALIDATION, started);
+        return failures;
+    }
+
+    private static List<ValidationResult> collect(List<ValidationResult> failures, ValidationResult result) {
+        if (result.isValid()) {
+            return failures;
+        }
+        if (failures == null) {
+            failures = new ArrayList<>(4);
+        }
+        failures.add(result);
+        return failures;
+    }
+
+    public static String joinMessages(List<ValidationResult> failures, String separator) {
+        StringBuilder sb = new StringBuilder();
+        for (ValidationResult failure : failures) {
+            if (sb.length() > 0) {
+                sb.append(separator);
+            }
+            sb.append(failure.getMessage());
+        }
+        return sb.toString();
+    }
+
+    public static long startOfToday() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+}
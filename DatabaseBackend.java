@@ -0,0 +1,46 @@
+import java.util.Locale;
+
+public enum DatabaseBackend {
+    // ==========================================
+    // Supported Backends
+    // ==========================================
+    ORACLE("jdbc:oracle:thin:@localhost:1521:XE", "system", "system",
+        "lib/ojdbc8.jar", "oracle.jdbc.OracleDriver", false),
+
+    // File-based H2 in Oracle compatibility mode, so the same SQL runs unchanged.
+    // AUTO_SERVER lets the importer and other tools share the file with the app.
+    H2("jdbc:h2:file:./data/ims;MODE=Oracle;AUTO_SERVER=TRUE", "sa", "",
+        "lib/h2.jar", "org.h2.Driver", true);
+
+    private final String defaultUrl;
+    private final String defaultUsername;
+    private final String defaultPassword;
+    private final String defaultDriverJar;
+    private final String driverClass;
+    private final boolean embedded;
+
+    DatabaseBackend(String defaultUrl, String defaultUsername, String defaultPassword,
+                    String defaultDriverJar, String driverClass, boolean embedded) {
+        this.defaultUrl = defaultUrl;
+        this.defaultUsername = defaultUsername;
+        this.defaultPassword = defaultPassword;
+        this.defaultDriverJar = defaultDriverJar;
+        this.driverClass = driverClass;
+        this.embedded = embedded;
+    }
+
+    public static DatabaseBackend forName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown database backend '" + name + "', expected oracle or h2");
+        }
+    }
+
+    public String getDefaultUrl() { return defaultUrl; }
+    public String getDefaultUsername() { return defaultUsername; }
+    public String getDefaultPassword() { return defaultPassword; }
+    public String getDefaultDriverJar() { return defaultDriverJar; }
+    public String getDriverClass() { return driverClass; }
+    public boolean isEmbedded() { return embedded; }
+}
@@ -0,0 +1,190 @@
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+public class DatabaseConfig {
+    // ==========================================
+    // Connection Settings
+    // ==========================================
+    private DatabaseBackend backend;
+    private String url;
+    private String username;
+    private String password;
+    private String driverJar;
+    private String driverClass;
+
+    // ==========================================
+    // Pool Settings
+    // ==========================================
+    // Volatile because ConfigLoader may change them while the pool is running
+    private volatile int maxPoolSize = 8;
+    private volatile long maxWaitMillis = 5000;
+    private volatile long idleTimeoutMillis = 5 * 60 * 1000;
+    private volatile long validationIntervalMillis = 500;
+    private volatile int validationTimeoutSeconds = 2;
+
+    // ==========================================
+    // ID Allocation Settings
+    // ==========================================
+    // INCREMENT BY for a new customer_id_seq; an existing sequence's increment wins
+    private int idBlockSize = 50;
+
+    // ==========================================
+    // Bulk Write Settings
+    // ==========================================
+    private volatile int batchSize = 500;
+    private volatile int commitInterval = 5000;
+
+    // ==========================================
+    // Policy Cache Settings
+    // ==========================================
+    private volatile int cacheMaxEntries = 10000;
+    private volatile long cacheTtlMillis = 10 * 60 * 1000;
+
+    // ==========================================
+    // Renewal Settings
+    // ==========================================
+    private int renewalWindowDays = 30;
+    private int renewalBatchSize = 500;
+    private long renewalIntervalMillis = 15 * 60 * 1000;
+
+    // ==========================================
+    // Metrics Settings
+    // ==========================================
+    // An empty dump file turns the periodic dump off; JMX is always available
+    private String metricsDumpFile = "";
+    private long metricsDumpIntervalMillis = 60 * 1000;
+
+    // ==========================================
+    // HTTP API Settings
+    // ==========================================
+    // Loopback only by default; bind to 0.0.0.0 to accept other hosts
+    private String apiBindAddress = "127.0.0.1";
+    private int apiPort = 8080;
+    private int apiThreads = 32;
+    private int apiMaxBatchSize = 1000;
+
+    // ==========================================
+    // Form Settings
+    // ==========================================
+    // Live validation waits for this long a pause in typing before checking a field
+    private int validationDebounceMillis = 150;
+
+    // ==========================================
+    // Resource Settings
+    // ==========================================
+    // Directory for pre-decoded images; empty decodes the JPEGs on every start
+    private String resourceCacheDir = "";
+
+    // ==========================================
+    // Offline Queue Settings
+    // ==========================================
+    // Submissions taken while the database is unreachable; empty turns the queue off
+    private String offlineQueueFile = "data/offline-queue.log";
+    private int offlineBatchSize = 100;
+    private long offlineRetryMillis = 5000;
+
+    // ==========================================
+    // User Store Settings
+    // ==========================================
+    // "file" keeps accounts in data/users.log, "jdbc" in the app_users table
+    private String userStore = "file";
+
+    // Defaults only; ConfigLoader layers the config file, environment and system properties on top
+    public DatabaseConfig() {
+        setBackend(DatabaseBackend.ORACLE);
+    }
+
+    // Switching backends resets the connection settings to that backend's defaults
+    public void setBackend(DatabaseBackend backend) {
+        this.backend = backend;
+        this.url = backend.getDefaultUrl();
+        this.username = backend.getDefaultUsername();
+        this.password = backend.getDefaultPassword();
+        this.driverJar = backend.getDefaultDriverJar();
+        this.driverClass = backend.getDriverClass();
+    }
+
+    // ==========================================
+    // Driver Loading
+    // ==========================================
+    public void loadDriver() throws ClassNotFoundException, MalformedURLException {
+        File jar = new File(driverJar);
+        if (!jar.exists()) {
+            throw new ClassNotFoundException(jar.getName() + " not found in " + jar.getParent() + " directory");
+        }
+
+        URLClassLoader classLoader = new URLClassLoader(
+            new URL[]{jar.toURI().toURL()},
+            DatabaseConfig.class.getClassLoader()
+        );
+
+        Class.forName(driverClass, true, classLoader);
+    }
+
+    // Getters
+    public DatabaseBackend getBackend() { return backend; }
+    public String getUrl() { return url; }
+    public String getUsername() { return username; }
+    public String getPassword() { return password; }
+    public String getDriverJar() { return driverJar; }
+    public String getDriverClass() { return driverClass; }
+    public int getMaxPoolSize() { return maxPoolSize; }
+    public long getMaxWaitMillis() { return maxWaitMillis; }
+    public long getIdleTimeoutMillis() { return idleTimeoutMillis; }
+    public long getValidationIntervalMillis() { return validationIntervalMillis; }
+    public int getValidationTimeoutSeconds() { return validationTimeoutSeconds; }
+    public int getIdBlockSize() { return idBlockSize; }
+    public int getBatchSize() { return batchSize; }
+    public int getCommitInterval() { return commitInterval; }
+    public int getCacheMaxEntries() { return cacheMaxEntries; }
+    public long getCacheTtlMillis() { return cacheTtlMillis; }
+    public int getRenewalWindowDays() { return renewalWindowDays; }
+    public int getRenewalBatchSize() { return renewalBatchSize; }
+    public long getRenewalIntervalMillis() { return renewalIntervalMillis; }
+    public String getMetricsDumpFile() { return metricsDumpFile; }
+    public long getMetricsDumpIntervalMillis() { return metricsDumpIntervalMillis; }
+    public String getApiBindAddress() { return apiBindAddress; }
+    public int getApiPort() { return apiPort; }
+    public int getApiThreads() { return apiThreads; }
+    public int getApiMaxBatchSize() { return apiMaxBatchSize; }
+    public int getValidationDebounceMillis() { return validationDebounceMillis; }
+    public String getResourceCacheDir() { return resourceCacheDir; }
+    public String getOfflineQueueFile() { return offlineQueueFile; }
+    public int getOfflineBatchSize() { return offlineBatchSize; }
+    public long getOfflineRetryMillis() { return offlineRetryMillis; }
+    public String getUserStore() { return userStore; }
+
+    // Setters
+    public void setUrl(String url) { this.url = url; }
+    public void setUsername(String username) { this.username = username; }
+    public void setPassword(String password) { this.password = password; }
+    public void setDriverJar(String driverJar) { this.driverJar = driverJar; }
+    public void setDriverClass(String driverClass) { this.driverClass = driverClass; }
+    public void setMaxPoolSize(int maxPoolSize) { this.maxPoolSize = maxPoolSize; }
+    public void setMaxWaitMillis(long maxWaitMillis) { this.maxWaitMillis = maxWaitMillis; }
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) { this.idleTimeoutMillis = idleTimeoutMillis; }
+    public void setValidationIntervalMillis(long validationIntervalMillis) { this.validationIntervalMillis = validationIntervalMillis; }
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) { this.validationTimeoutSeconds = validationTimeoutSeconds; }
+    public void setIdBlockSize(int idBlockSize) { this.idBlockSize = idBlockSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public void setCommitInterval(int commitInterval) { this.commitInterval = commitInterval; }
+    public void setCacheMaxEntries(int cacheMaxEntries) { this.cacheMaxEntries = cacheMaxEntries; }
+    public void setCacheTtlMillis(long cacheTtlMillis) { this.cacheTtlMillis = cacheTtlMillis; }
+    public void setRenewalWindowDays(int renewalWindowDays) { this.renewalWindowDays = renewalWindowDays; }
+    public void setRenewalBatchSize(int renewalBatchSize) { this.renewalBatchSize = renewalBatchSize; }
+    public void setRenewalIntervalMillis(long renewalIntervalMillis) { this.renewalIntervalMillis = renewalIntervalMillis; }
+    public void setMetricsDumpFile(String metricsDumpFile) { this.metricsDumpFile = metricsDumpFile; }
+    public void setMetricsDumpIntervalMillis(long metricsDumpIntervalMillis) { this.metricsDumpIntervalMillis = metricsDumpIntervalMillis; }
+    public void setApiBindAddress(String apiBindAddress) { this.apiBindAddress = apiBindAddress; }
+    public void setApiPort(int apiPort) { this.apiPort = apiPort; }
+    public void setApiThreads(int apiThreads) { this.apiThreads = apiThreads; }
+    public void setApiMaxBatchSize(int apiMaxBatchSize) { this.apiMaxBatchSize = apiMaxBatchSize; }
+    public void setValidationDebounceMillis(int validationDebounceMillis) { this.validationDebounceMillis = validationDebounceMillis; }
+    public void setResourceCacheDir(String resourceCacheDir) { this.resourceCacheDir = resourceCacheDir; }
+    public void setOfflineQueueFile(String offlineQueueFile) { this.offlineQueueFile = offlineQueueFile; }
+    public void setOfflineBatchSize(int offlineBatchSize) { this.offlineBatchSize = offlineBatchSize; }
+    public void setOfflineRetryMillis(long offlineRetryMillis) { this.offlineRetryMillis = offlineRetryMillis; }
+    public void setUserStore(String userStore) { this.userStore = userStore; }
+}
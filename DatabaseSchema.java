@@ -0,0 +1,58 @@
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public final class DatabaseSchema {
+    // ==========================================
+    // Customer Schema
+    // ==========================================
+    // The other tables (app_users, renewal_tasks, policy_quotes, applied_submissions)
+    // are created by the classes that own them; customer_details is shared by all of them.
+    private static final String CREATE_CUSTOMERS_SQL = "CREATE TABLE customer_details ("
+        + "id NUMBER PRIMARY KEY, "
+        + "name VARCHAR2(50) NOT NULL, "
+        + "email VARCHAR2(100) NOT NULL, "
+        + "phone VARCHAR2(15) NOT NULL, "
+        + "address VARCHAR2(255) NOT NULL, "
+        + "policy_type VARCHAR2(50) NOT NULL, "
+        + "policy_number VARCHAR2(20) NOT NULL, "
+        + "start_date DATE NOT NULL, "
+        + "end_date DATE NOT NULL, "
+        + "CONSTRAINT customer_policy_number_uk UNIQUE (policy_number))";
+    private static final String[] CREATE_INDEXES_SQL = {
+        "CREATE INDEX customer_end_date_idx ON customer_details (end_date, id)"
+    };
+    // CustomerSearch filters on UPPER(name) LIKE 'PREFIX%', which only a function-based
+    // index can serve. H2 has no expression indexes, so there the name search scans.
+    private static final String CREATE_NAME_INDEX_SQL =
+        "CREATE INDEX customer_name_idx ON customer_details (UPPER(name), id)";
+
+    private DatabaseSchema() {
+    }
+
+    // Creates customer_details with its indexes when the table does not exist yet
+    public static void ensureSchema(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeQuery("SELECT 1 FROM customer_details WHERE 1 = 0").close();
+            return;
+        } catch (SQLException missing) {
+            // Fall through and create it
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(CREATE_CUSTOMERS_SQL);
+            for (String sql : CREATE_INDEXES_SQL) {
+                stmt.execute(sql);
+            }
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(CREATE_NAME_INDEX_SQL);
+        } catch (SQLException e) {
+            System.out.println("Skipped customer_name_idx, the database has no function-based indexes: "
+                + e.getMessage());
+        }
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+        System.out.println("Created table customer_details");
+    }
+}
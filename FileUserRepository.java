@@ -0,0 +1,264 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class FileUserRepository implements UserRepository {
+    // ==========================================
+    // Log Format
+    // ==========================================
+    // Header: magic + version. Each record: type byte followed by the user fields
+    // as modified UTF-8. A later record for the same username replaces the earlier
+    // one, so the log only ever grows until it is compacted.
+    private static final int MAGIC = 0x494D5355; // "IMSU"
+    private static final int VERSION = 1;
+    private static final byte RECORD_USER = 'U';
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final File logFile;
+    private DataOutputStream out;
+    private FileOutputStream fileOut;
+    private long recordCount;
+
+    public FileUserRepository(File logFile) {
+        this.logFile = logFile;
+    }
+
+    // ==========================================
+    // Replay
+    // ==========================================
+    @Override
+    public synchronized Collection<User> loadAll() {
+        Map<String, User> users = new LinkedHashMap<>();
+        recordCount = 0;
+        try {
+            if (logFile.exists() && logFile.length() > 0) {
+                long validLength = replay(users);
+                if (validLength < logFile.length()) {
+                    // A crash mid-append leaves a partial record at the tail; drop it.
+                    // Anything else unreadable fails the load and leaves the file alone.
+                    System.err.println("Truncating damaged tail of " + logFile + " at byte " + validLength);
+                    try (RandomAccessFile raf = new RandomAccessFile(logFile, "rw")) {
+                        raf.setLength(validLength);
+                    }
+                }
+                // Rewrite the log once superseded records make up more than half of it
+                if (recordCount > 2L * users.size() + 16) {
+                    compact(users.values());
+                }
+            }
+            openForAppend();
+        } catch (IOException e) {
+            throw new UserStoreException("Could not read user log " + logFile, e);
+        }
+        return Collections.unmodifiableCollection(users.values());
+    }
+
+    private long replay(Map<String, User> users) throws IOException {
+        try (CountingInputStream counting = new CountingInputStream(
+                new BufferedInputStream(new FileInputStream(logFile), READ_BUFFER_SIZE));
+             DataInputStream in = new DataInputStream(counting)) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(logFile + " is not a user log");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported user log version " + version);
+            }
+
+            long validLength = counting.count;
+            while (true) {
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    return validLength;
+                }
+                if (type != RECORD_USER) {
+                    // A damaged byte or a record from a newer version: valid accounts may follow
+                    throw new IOException("Unknown record type " + type + " at byte " + validLength + " of " + logFile);
+                }
+                try {
+                    User user = readUser(in);
+                    users.put(user.getUsername(), user);
+                } catch (EOFException e) {
+                    return validLength;
+                }
+                recordCount++;
+                validLength = counting.count;
+            }
+        }
+    }
+
+    // ==========================================
+    // Appending
+    // ==========================================
+    @Override
+    public synchronized void save(User user) {
+        saveAll(Collections.singletonList(user));
+    }
+
+    @Override
+    public synchronized void saveAll(Collection<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            if (out == null) {
+                openForAppend();
+            }
+            for (User user : users) {
+                out.writeByte(RECORD_USER);
+                writeUser(out, user);
+                recordCount++;
+            }
+            // One fsync per call, so bulk loads pay for durability once
+            out.flush();
+            fileOut.getFD().sync();
+        } catch (IOException e) {
+            throw new UserStoreException("Could not append to user log " + logFile, e);
+        }
+    }
+
+    private void openForAppend() throws IOException {
+        File parent = logFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Could not create directory " + parent);
+        }
+        boolean isNew = !logFile.exists() || logFile.length() == 0;
+        fileOut = new FileOutputStream(logFile, true);
+        out = new DataOutputStream(new BufferedOutputStream(fileOut));
+        if (isNew) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.flush();
+        }
+    }
+
+    // The unreadable log becomes users.log.corrupt (or .corrupt.<millis> if that is
+    // taken) and the next loadAll starts a new one
+    @Override
+    public synchronized void setAside() {
+        closeQuietly();
+        File aside = new File(logFile.getPath() + ".corrupt");
+        if (aside.exists()) {
+            aside = new File(aside.getPath() + "." + System.currentTimeMillis());
+        }
+        try {
+            Files.move(logFile.toPath(), aside.toPath());
+        } catch (IOException e) {
+            throw new UserStoreException("Could not move " + logFile + " aside", e);
+        }
+        System.err.println("Moved unreadable user log " + logFile + " to " + aside
+            + "; accounts stored in it cannot sign in until it is repaired");
+    }
+
+    // ==========================================
+    // Compaction
+    // ==========================================
+    public synchronized void compact(Collection<User> liveUsers) throws IOException {
+        closeQuietly();
+        File tempFile = new File(logFile.getPath() + ".compact");
+        try (FileOutputStream tempOut = new FileOutputStream(tempFile);
+             DataOutputStream snapshot = new DataOutputStream(new BufferedOutputStream(tempOut))) {
+            snapshot.writeInt(MAGIC);
+            snapshot.writeInt(VERSION);
+            for (User user : liveUsers) {
+                snapshot.writeByte(RECORD_USER);
+                writeUser(snapshot, user);
+            }
+            snapshot.flush();
+            tempOut.getFD().sync();
+        }
+        Files.move(tempFile.toPath(), logFile.toPath(),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("Compacted " + logFile + " from " + recordCount + " to " + liveUsers.size() + " records");
+        recordCount = liveUsers.size();
+    }
+
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    // ==========================================
+    // Record Encoding
+    // ==========================================
+    private static void writeUser(DataOutputStream out, User user) throws IOException {
+        out.writeUTF(nullToEmpty(user.getFullName()));
+        out.writeUTF(nullToEmpty(user.getEmail()));
+        out.writeUTF(nullToEmpty(user.getUsername()));
+        out.writeUTF(nullToEmpty(user.getPassword()));
+    }
+
+    private static User readUser(DataInputStream in) throws IOException {
+        String fullName = in.readUTF();
+        String email = in.readUTF();
+        String username = in.readUTF();
+        String password = in.readUTF();
+        return new User(fullName, email, username, password);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    // ==========================================
+    // Shutdown
+    // ==========================================
+    @Override
+    public synchronized void close() {
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                System.err.println("Error closing user log: " + e.getMessage());
+            }
+            out = null;
+            fileOut = null;
+        }
+    }
+}
@@ -1,20 +1,15 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import javax.imageio.ImageIO;
 import java.io.File;
 import java.io.IOException;
-import javax.swing.event.DocumentEvent;
-import javax.swing.event.DocumentListener;
 import com.toedter.calendar.JDateChooser;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.net.URL;
-import java.net.URLClassLoader;
-import java.sql.ResultSet;
+import java.util.concurrent.CompletableFuture;
 
 public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener {
     // ==========================================
@@ -24,166 +19,275 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
     private JPanel mainPanel;
     private LoginPanel loginPanel;
     private JPanel contentPanel;
+    private JPanel contentCards;
+    private boolean showingSearch;
     private JPanel customerDetailsPanel;
     private JPanel footerPanel;
-    private Image backgroundImage;
-    private Connection connection;
+    private ScaledBackground background;
+    private final ConfigLoader configLoader;
+    private final DatabaseConfig databaseConfig;
+    private volatile ConnectionPool connectionPool;
+    private PersistenceExecutor persistenceExecutor;
+    private ValidationScheduler validationScheduler;
+    private OfflineQueue offlineQueue;
+    private volatile CustomerIdAllocator idAllocator;
+    private CompletableFuture<Boolean> databaseStartup;
     private JLabel dbStatusLabel;
+    private JLabel renewalStatusLabel;
+    private volatile RenewalScheduler renewalScheduler;
+    private volatile CustomerSearch customerSearch;
+    private volatile CustomerService customerService;
+    private final PremiumEngine premiumEngine = PremiumEngine.withDefaultRates();
+    private final PolicyNumberIndex policyNumbers = new PolicyNumberIndex();
+    private final PolicyCache policyCache;
+    private CustomerTableModel customerTableModel;
+    private JLabel searchStatusLabel;
+
+    private static final String[] POLICY_TYPES = {
+        "Health Insurance",
+        "Life Insurance",
+        "Auto Insurance",
+        "Home Insurance",
+        "Business Insurance"
+    };
+
+    // Validation rule for each personal information field, in form order
+    private static final CustomerValidator.Field[] PERSONAL_FIELD_RULES = {
+        CustomerValidator.Field.NAME,
+        CustomerValidator.Field.EMAIL,
+        CustomerValidator.Field.PHONE,
+        CustomerValidator.Field.ADDRESS
+    };
 
     // ==========================================
     // Database Connection
     // ==========================================
-    private void initializeDatabase() {
+    // Runs in the background after the first frame is on screen. True once the pool,
+    // schema and user store are ready; the slower warm-up runs afterwards on its own.
+    private boolean initializeDatabase() {
         try {
-            File driverFile = new File("lib/ojdbc8.jar");
-            if (!driverFile.exists()) {
-                throw new ClassNotFoundException("ojdbc8.jar not found in lib directory");
+            long driverStart = System.nanoTime();
+            databaseConfig.loadDriver();
+            StartupTimings.mark("driver loaded");
+            System.out.println("JDBC driver loaded in " + (System.nanoTime() - driverStart) / 1_000_000 + " ms");
+
+            // The pool reconnects on demand, so keep it even if the first connection fails
+            idAllocator = new CustomerIdAllocator(databaseConfig.getIdBlockSize());
+            connectionPool = new ConnectionPool(databaseConfig);
+            customerService = new CustomerService(connectionPool, idAllocator, policyNumbers, policyCache,
+                premiumEngine, databaseConfig);
+            customerSearch = customerService.getCustomerSearch();
+            // Replays whatever was queued while the database was down, now or later
+            if (offlineQueue != null) {
+                offlineQueue.start(customerService);
             }
-
-            URLClassLoader classLoader = new URLClassLoader(
-                new URL[]{driverFile.toURI().toURL()},
-                InsuranceSystem.class.getClassLoader()
-            );
-            
-            Class.forName("oracle.jdbc.OracleDriver", true, classLoader);
-
-            String url = "jdbc:oracle:thin:@localhost:1521:XE";
-            String username = "system";
-            String password = "system";
-
-            connection = DriverManager.getConnection(url, username, password);
-            System.out.println("Database connected successfully!");
-            updateDatabaseStatus(true, "Connected");
-            
+            try (Connection connection = connectionPool.getConnection()) {
+                System.out.println("Database connected successfully (" + databaseConfig.getBackend() + ")!");
+                DatabaseSchema.ensureSchema(connection);
+            }
+            StartupTimings.mark("database connected");
+            if ("jdbc".equals(databaseConfig.getUserStore())) {
+                UserService.getInstance().setRepository(new JdbcUserRepository(connectionPool));
+            }
+            SwingUtilities.invokeLater(() -> updateDatabaseStatus(true, "Connected"));
+            return true;
         } catch (ClassNotFoundException e) {
-            System.err.println("Oracle JDBC Driver not found: " + e.getMessage());
-            updateDatabaseStatus(false, "Driver not found");
-            JOptionPane.showMessageDialog(this,
-                "Database driver not found. Please ensure ojdbc8.jar is in the lib directory.",
-                "Database Error",
-                JOptionPane.ERROR_MESSAGE);
+            System.err.println("JDBC driver not found: " + e.getMessage());
+            reportDatabaseError("Driver not found",
+                "Database driver not found. Please ensure " + databaseConfig.getDriverJar() + " is available.");
         } catch (SQLException e) {
             System.err.println("Database connection error: " + e.getMessage());
-            updateDatabaseStatus(false, "Connection failed");
-            JOptionPane.showMessageDialog(this,
-                "Could not connect to database: " + e.getMessage(),
-                "Database Error",
-                JOptionPane.ERROR_MESSAGE);
+            reportDatabaseError("Connection failed", "Could not connect to database: " + e.getMessage());
         } catch (Exception e) {
             System.err.println("Error initializing database: " + e.getMessage());
-            updateDatabaseStatus(false, "Error");
+            reportDatabaseError("Error", "Error initializing database: " + e.getMessage());
+        } finally {
+            System.out.println(StartupTimings.summary());
+            System.out.println(ResourceManager.summary());
+        }
+        return false;
+    }
+
+    // Submissions go straight to the database while this runs
+    private void warmUpDatabase() {
+        // Duplicate policy numbers are only caught by the form once this finishes
+        try {
+            policyNumbers.warm(connectionPool);
+        } catch (SQLException e) {
+            System.err.println("Could not warm policy number index: " + e.getMessage());
+        }
+        startRenewalScheduler();
+    }
+
+    private void reportDatabaseError(String status, String message) {
+        SwingUtilities.invokeLater(() -> {
+            updateDatabaseStatus(false, status);
             JOptionPane.showMessageDialog(this,
-                "Error initializing database: " + e.getMessage(),
+                message,
                 "Database Error",
                 JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    private void startDatabaseInBackground() {
+        databaseStartup = persistenceExecutor.submit(this::initializeDatabase);
+        databaseStartup.thenAccept(connected -> {
+            if (connected) {
+                persistenceExecutor.submit(() -> {
+                    warmUpDatabase();
+                    return null;
+                });
+            }
+        });
+    }
+
+    private void startRenewalScheduler() {
+        RenewalScheduler scheduler = new RenewalScheduler(connectionPool,
+            databaseConfig.getRenewalWindowDays(),
+            databaseConfig.getRenewalBatchSize(),
+            databaseConfig.getRenewalIntervalMillis(),
+            task -> System.out.println("Renewal due: policy " + task.getPolicyNumber()
+                + " (customer " + task.getCustomerId() + ") ends " + task.getEndDate()));
+        scheduler.setRunListener(() -> SwingUtilities.invokeLater(this::updateRenewalStatus));
+        scheduler.start(0);
+        renewalScheduler = scheduler;
+    }
+
+    private void updateRenewalStatus() {
+        RenewalScheduler scheduler = renewalScheduler;
+        if (renewalStatusLabel != null && scheduler != null) {
+            renewalStatusLabel.setText(scheduler.getStatusLine());
+            renewalStatusLabel.setToolTipText(scheduler.getLastError() != null
+                ? scheduler.getLastError() : scheduler.getStatsSummary());
         }
     }
 
     private void updateDatabaseStatus(boolean connected, String message) {
         if (dbStatusLabel != null) {
             dbStatusLabel.setText("Database: " + message);
-            dbStatusLabel.setForeground(connected ? new Color(46, 204, 113) : new Color(231, 76, 60));
+            dbStatusLabel.setForeground(connected ? Theme.SUCCESS : Theme.DANGER);
+            refreshDatabaseStats();
         }
     }
 
-    private void closeDatabaseConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+    // Tooltip only; the status text is left as it is
+    private void refreshDatabaseStats() {
+        if (dbStatusLabel != null && connectionPool != null) {
+            dbStatusLabel.setToolTipText("<html>" + connectionPool.getStatsSummary()
+                + "<br>" + idAllocator.getStatsSummary()
+                + "<br>" + persistenceExecutor.getStatsSummary()
+                + "<br>" + validationScheduler.getStatsSummary()
+                + (offlineQueue != null ? "<br>" + offlineQueue.getStatsSummary() : "")
+                + "<br>" + policyCache.getStatsSummary()
+                + "<br>" + policyNumbers.getStatsSummary()
+                + "<br>" + Metrics.getStatsSummary() + "</html>");
         }
     }
 
-    // ==========================================
-    // Database Operations
-    // ==========================================
-    private int getNextCustomerId() {
-        try {
-            String sql = "SELECT NVL(MAX(id), 0) + 1 FROM customer_details";
-            PreparedStatement pstmt = connection.prepareStatement(sql);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-            return 1; // Default to 1 if no records exist
-            
-        } catch (SQLException e) {
-            System.err.println("Error getting next customer ID: " + e.getMessage());
-            return 1; // Default to 1 if there's an error
+    // Shows the backlog while there is one, and the connection again once it has drained
+    private void updateQueueStatus() {
+        OfflineQueue queue = offlineQueue;
+        if (queue == null) {
+            return;
+        }
+        int waiting = queue.getPendingCount();
+        if (waiting > 0) {
+            updateDatabaseStatus(false, waiting + " submission(s) queued");
+        } else {
+            updateDatabaseStatus(true, "Connected");
         }
     }
 
-    private void saveCustomerDetails(String name, String email, String phone, String address,
-                                   String policyType, String policyNumber, Date startDate, Date endDate) {
-        if (connection == null) {
-            JOptionPane.showMessageDialog(this,
-                "Database connection is not available. Please restart the application.",
-                "Database Error",
-                JOptionPane.ERROR_MESSAGE);
-            return;
+    // Timeouts and batch sizes are read from the config on every use; the pool and
+    // cache keep their own copies of their limits, so push those across
+    private void applyConfigChange(DatabaseConfig config, List<String> changedKeys) {
+        ConnectionPool pool = connectionPool;
+        if (pool != null && changedKeys.contains("ims.pool.maxSize")) {
+            pool.setMaxPoolSize(config.getMaxPoolSize());
         }
+        if (changedKeys.contains("ims.cache.maxEntries") || changedKeys.contains("ims.cache.ttlMillis")) {
+            policyCache.resize(config.getCacheMaxEntries(), config.getCacheTtlMillis());
+        }
+        if (changedKeys.contains("ims.validation.debounceMillis")) {
+            validationScheduler.setDelayMillis(config.getValidationDebounceMillis());
+        }
+        // New limits show up in the stats; a reload says nothing about the connection
+        SwingUtilities.invokeLater(this::refreshDatabaseStats);
+    }
 
-        try {
-            // Get the next available ID
-            int nextId = getNextCustomerId();
-            
-            String sql = "INSERT INTO customer_details (id, name, email, phone, address, policy_type, " +
-                        "policy_number, start_date, end_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            
-            PreparedStatement pstmt = connection.prepareStatement(sql);
-            pstmt.setInt(1, nextId);
-            pstmt.setString(2, name);
-            pstmt.setString(3, email);
-            pstmt.setString(4, phone);
-            pstmt.setString(5, address);
-            pstmt.setString(6, policyType);
-            pstmt.setString(7, policyNumber);
-            pstmt.setDate(8, new java.sql.Date(startDate.getTime()));
-            pstmt.setDate(9, new java.sql.Date(endDate.getTime()));
-            
-            pstmt.executeUpdate();
-            pstmt.close();
-            
-            updateDatabaseStatus(true, "Connected");
-            
-            // Show success message with the generated ID
-            JOptionPane.showMessageDialog(this,
-                "Customer details saved successfully!\nGenerated Customer ID: " + nextId,
-                "Success",
-                JOptionPane.INFORMATION_MESSAGE);
-            
-        } catch (SQLException e) {
-            System.err.println("Error saving customer details: " + e.getMessage());
-            updateDatabaseStatus(false, "Error saving data");
-            JOptionPane.showMessageDialog(this,
-                "Error saving data to database: " + e.getMessage(),
-                "Database Error",
-                JOptionPane.ERROR_MESSAGE);
+    private void closeDatabaseConnection() {
+        configLoader.close();
+        if (renewalScheduler != null) {
+            renewalScheduler.close();
+        }
+        // Let in-flight saves finish (a failed one may still be queued) before the pool goes away
+        persistenceExecutor.shutdown(5000);
+        if (offlineQueue != null) {
+            offlineQueue.close();
         }
+        if (connectionPool != null) {
+            connectionPool.close();
+            System.out.println("Database connection pool closed.");
+        }
+        Metrics.stopDumping();
     }
 
     // ==========================================
     // Constructor and Initialization
     // ==========================================
-    public InsuranceSystem() {
+    public InsuranceSystem(ConfigLoader configLoader, DatabaseConfig databaseConfig) {
+        this.configLoader = configLoader;
+        this.databaseConfig = databaseConfig;
+        policyCache = new PolicyCache(databaseConfig.getCacheMaxEntries(), databaseConfig.getCacheTtlMillis());
+        persistenceExecutor = new PersistenceExecutor(databaseConfig.getMaxPoolSize());
+        validationScheduler = new ValidationScheduler(databaseConfig.getValidationDebounceMillis(), persistenceExecutor);
+        offlineQueue = openOfflineQueue();
+        configLoader.startWatching(databaseConfig, this::applyConfigChange);
+        Metrics.registerMBeans();
+        if (!databaseConfig.getMetricsDumpFile().isEmpty()) {
+            Metrics.startDumping(new File(databaseConfig.getMetricsDumpFile()), databaseConfig.getMetricsDumpIntervalMillis());
+        }
         loadBackgroundImage();
-        initializeDatabase();
-        initializeUI();
+        StartupTimings.time("build UI", this::initializeUI);
+
+        // Record time-to-first-frame, then load the driver and connect off the EDT
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                StartupTimings.mark("first frame");
+                startDatabaseInBackground();
+            }
+        });
+    }
+
+    // Read before the first frame, so submissions made while connecting can queue
+    // behind whatever an earlier run left. Without it, outages are reported as errors.
+    private OfflineQueue openOfflineQueue() {
+        String file = databaseConfig.getOfflineQueueFile().trim();
+        if (file.isEmpty()) {
+            return null;
+        }
+        try {
+            OfflineQueue queue = new OfflineQueue(file, databaseConfig.getOfflineBatchSize(),
+                databaseConfig.getOfflineRetryMillis());
+            queue.setChangeListener(() -> SwingUtilities.invokeLater(this::updateQueueStatus));
+            return queue;
+        } catch (IOException e) {
+            System.err.println("Offline queue disabled, could not open " + file + ": " + e.getMessage());
+            return null;
+        }
     }
 
     // ==========================================
     // Background Image Handling
     // ==========================================
+    // Decoded in the background (main() has usually started it already); the panel
+    // shows its plain background until then
     private void loadBackgroundImage() {
-        try {
-            backgroundImage = ImageIO.read(new File("main.jpg"));
-        } catch (IOException e) {
-            System.err.println("Error loading background image: " + e.getMessage());
-        }
+        ResourceManager.whenLoaded("main.jpg", image -> {
+            background = new ScaledBackground(image);
+            mainPanel.repaint();
+        });
     }
 
     // ==========================================
@@ -203,8 +307,8 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                if (backgroundImage != null) {
-                    g.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
+                if (background != null) {
+                    background.paint(g, this);
                 }
             }
         };
@@ -218,33 +322,58 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
 
         // Create header panel
         JPanel headerPanel = new JPanel(new BorderLayout());
-        headerPanel.setBackground(new Color(41, 128, 185, 230));
+        headerPanel.setBackground(Theme.BAR);
         headerPanel.setPreferredSize(new Dimension(getWidth(), 60));
-        headerPanel.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+        headerPanel.setBorder(Theme.BAR_PADDING);
 
         // System name label (centered)
         JLabel systemNameLabel = new JLabel("Insurance Management System");
-        systemNameLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
+        systemNameLabel.setFont(Theme.font(Font.BOLD, 24));
         systemNameLabel.setForeground(Color.WHITE);
         systemNameLabel.setHorizontalAlignment(SwingConstants.CENTER);
         headerPanel.add(systemNameLabel, BorderLayout.CENTER);
 
         // Database status label
         dbStatusLabel = new JLabel("Database: Connecting...");
-        dbStatusLabel.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        dbStatusLabel.setFont(Theme.font(Font.BOLD, 12));
         dbStatusLabel.setForeground(Color.WHITE);
-        headerPanel.add(dbStatusLabel, BorderLayout.WEST);
+
+        // Renewal scheduler status, shown beside the database status
+        renewalStatusLabel = new JLabel(" ");
+        renewalStatusLabel.setFont(Theme.font(Font.PLAIN, 12));
+        renewalStatusLabel.setForeground(Color.WHITE);
+
+        JPanel statusPanel = new JPanel(new GridLayout(2, 1));
+        statusPanel.setOpaque(false);
+        statusPanel.add(dbStatusLabel);
+        statusPanel.add(renewalStatusLabel);
+        headerPanel.add(statusPanel, BorderLayout.WEST);
 
         // Logout button
         JButton logoutButton = new JButton("Logout");
-        logoutButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        logoutButton.setFont(Theme.font(Font.BOLD, 14));
         logoutButton.setForeground(Color.WHITE);
-        logoutButton.setBackground(new Color(231, 76, 60));
+        logoutButton.setBackground(Theme.DANGER);
         logoutButton.setFocusPainted(false);
         logoutButton.setBorderPainted(false);
-        logoutButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        logoutButton.setCursor(Theme.HAND);
         logoutButton.addActionListener(e -> handleLogout());
-        headerPanel.add(logoutButton, BorderLayout.EAST);
+
+        // Switches between the customer form and the search screen
+        JButton searchButton = new JButton("Search Customers");
+        searchButton.setFont(Theme.font(Font.BOLD, 14));
+        searchButton.setForeground(Color.WHITE);
+        searchButton.setBackground(Theme.SUCCESS);
+        searchButton.setFocusPainted(false);
+        searchButton.setBorderPainted(false);
+        searchButton.setCursor(Theme.HAND);
+        searchButton.addActionListener(e -> toggleSearchView(searchButton));
+
+        JPanel headerButtons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        headerButtons.setOpaque(false);
+        headerButtons.add(searchButton);
+        headerButtons.add(logoutButton);
+        headerPanel.add(headerButtons, BorderLayout.EAST);
 
         // Create customer details panel
         customerDetailsPanel = createCustomerDetailsPanel();
@@ -263,14 +392,20 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
         // Customize scrollbar appearance
         JScrollBar verticalScrollBar = scrollPane.getVerticalScrollBar();
         verticalScrollBar.setPreferredSize(new Dimension(12, 0));
-        verticalScrollBar.setBackground(new Color(41, 128, 185, 230));
+        verticalScrollBar.setBackground(Theme.BAR);
         verticalScrollBar.setForeground(Color.WHITE);
         verticalScrollBar.setUnitIncrement(16);
         verticalScrollBar.setBlockIncrement(50);
 
+        // The form and the search screen share the space between header and footer
+        contentCards = new JPanel(new CardLayout());
+        contentCards.setOpaque(false);
+        contentCards.add(scrollPane, "form");
+        contentCards.add(createSearchPanel(), "search");
+
         // Add all panels to content panel
         contentPanel.add(headerPanel, BorderLayout.NORTH);
-        contentPanel.add(scrollPane, BorderLayout.CENTER);
+        contentPanel.add(contentCards, BorderLayout.CENTER);
         contentPanel.add(footerPanel, BorderLayout.SOUTH);
 
         // Add panels to main panel
@@ -297,8 +432,8 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
         JPanel titlePanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         titlePanel.setOpaque(false);
         JLabel titleLabel = new JLabel("Customer Details");
-        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 32));
-        titleLabel.setForeground(new Color(41, 41, 41)); // Dark gray color
+        titleLabel.setFont(Theme.font(Font.BOLD, 32));
+        titleLabel.setForeground(Theme.TEXT);
         titlePanel.add(titleLabel);
         
         gbc.gridx = 0;
@@ -311,8 +446,8 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
         JPanel personalInfoPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         personalInfoPanel.setOpaque(false);
         JLabel personalLabel = new JLabel("Personal Information");
-        personalLabel.setFont(new Font("Segoe UI", Font.BOLD, 22));
-        personalLabel.setForeground(new Color(41, 41, 41)); // Dark gray color
+        personalLabel.setFont(Theme.font(Font.BOLD, 22));
+        personalLabel.setForeground(Theme.TEXT);
         personalInfoPanel.add(personalLabel);
         
         gbc.gridy = 1;
@@ -332,107 +467,26 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
             // Label
             gbc.gridx = 0;
             JLabel label = new JLabel(personalLabels[fieldIndex]);
-            label.setFont(new Font("Segoe UI", Font.BOLD, 16));
-            label.setForeground(new Color(41, 41, 41)); // Dark gray color
+            label.setFont(Theme.font(Font.BOLD, 16));
+            label.setForeground(Theme.TEXT);
             panel.add(label, gbc);
             
             // Text Field
             gbc.gridx = 1;
             personalFields[fieldIndex] = new JTextField(25);
-            personalFields[fieldIndex].setFont(new Font("Segoe UI", Font.PLAIN, 16));
+            personalFields[fieldIndex].setFont(Theme.font(Font.PLAIN, 16));
             personalFields[fieldIndex].setBackground(Color.WHITE);
-            personalFields[fieldIndex].setForeground(new Color(41, 41, 41));
-            personalFields[fieldIndex].setCaretColor(new Color(41, 128, 185));
-            personalFields[fieldIndex].setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(new Color(41, 41, 41), 2),
-                BorderFactory.createEmptyBorder(8, 12, 8, 12)
-            ));
-            
-            // Add hover effect
-            personalFields[fieldIndex].addMouseListener(new MouseAdapter() {
-                public void mouseEntered(MouseEvent e) {
-                    personalFields[fieldIndex].setBorder(BorderFactory.createCompoundBorder(
-                        BorderFactory.createLineBorder(new Color(41, 128, 185), 2),
-                        BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                    ));
-                }
-                public void mouseExited(MouseEvent e) {
-                    if (!personalFields[fieldIndex].hasFocus()) {
-                        personalFields[fieldIndex].setBorder(BorderFactory.createCompoundBorder(
-                            BorderFactory.createLineBorder(new Color(41, 41, 41), 2),
-                            BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                        ));
-                    }
-                }
-            });
+            personalFields[fieldIndex].setForeground(Theme.TEXT);
+            personalFields[fieldIndex].setCaretColor(Theme.PRIMARY);
 
-            // Add focus effect
-            personalFields[fieldIndex].addFocusListener(new FocusAdapter() {
-                public void focusGained(FocusEvent e) {
-                    personalFields[fieldIndex].setBorder(BorderFactory.createCompoundBorder(
-                        BorderFactory.createLineBorder(new Color(41, 128, 185), 2),
-                        BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                    ));
-                }
-                public void focusLost(FocusEvent e) {
-                    personalFields[fieldIndex].setBorder(BorderFactory.createCompoundBorder(
-                        BorderFactory.createLineBorder(new Color(41, 41, 41), 2),
-                        BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                    ));
-                }
-            });
+            // Hover and focus effects, shared with the other form fields
+            Theme.installFieldHighlight(personalFields[fieldIndex]);
             
-            // Add input validation
-            personalFields[fieldIndex].getDocument().addDocumentListener(new DocumentListener() {
-                public void changedUpdate(DocumentEvent e) { validateField(fieldIndex); }
-                public void removeUpdate(DocumentEvent e) { validateField(fieldIndex); }
-                public void insertUpdate(DocumentEvent e) { validateField(fieldIndex); }
-                
-                private void validateField(int index) {
-                    String text = personalFields[index].getText();
-                    switch(index) {
-                        case 0: // Name
-                            if (!text.matches("^[a-zA-Z\\s]{2,50}$")) {
-                                personalFields[index].setBorder(BorderFactory.createCompoundBorder(
-                                    BorderFactory.createLineBorder(new Color(231, 76, 60), 2),
-                                    BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                                ));
-                            } else {
-                                personalFields[index].setBorder(BorderFactory.createCompoundBorder(
-                                    BorderFactory.createLineBorder(new Color(46, 204, 113), 2),
-                                    BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                                ));
-                            }
-                            break;
-                        case 1: // Email
-                            if (!text.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
-                                personalFields[index].setBorder(BorderFactory.createCompoundBorder(
-                                    BorderFactory.createLineBorder(new Color(231, 76, 60), 2),
-                                    BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                                ));
-                            } else {
-                                personalFields[index].setBorder(BorderFactory.createCompoundBorder(
-                                    BorderFactory.createLineBorder(new Color(46, 204, 113), 2),
-                                    BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                                ));
-                            }
-                            break;
-                        case 2: // Phone
-                            if (!text.matches("^\\d{10}$")) {
-                                personalFields[index].setBorder(BorderFactory.createCompoundBorder(
-                                    BorderFactory.createLineBorder(new Color(231, 76, 60), 2),
-                                    BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                                ));
-                            } else {
-                                personalFields[index].setBorder(BorderFactory.createCompoundBorder(
-                                    BorderFactory.createLineBorder(new Color(46, 204, 113), 2),
-                                    BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                                ));
-                            }
-                            break;
-                    }
-                }
-            });
+            // Add input validation, run once typing pauses rather than on every document event
+            CustomerValidator.Field rule = PERSONAL_FIELD_RULES[fieldIndex];
+            validationScheduler.watch(personalFields[fieldIndex],
+                text -> CustomerValidator.validateField(rule, text), null,
+                result -> personalFields[fieldIndex].setBorder(Theme.validationBorder(result.isValid())));
             
             panel.add(personalFields[fieldIndex], gbc);
         }
@@ -441,8 +495,8 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
         JPanel policyInfoPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         policyInfoPanel.setOpaque(false);
         JLabel policyLabel = new JLabel("Policy Information");
-        policyLabel.setFont(new Font("Segoe UI", Font.BOLD, 22));
-        policyLabel.setForeground(new Color(41, 41, 41)); // Dark gray color
+        policyLabel.setFont(Theme.font(Font.BOLD, 22));
+        policyLabel.setForeground(Theme.TEXT);
         policyInfoPanel.add(policyLabel);
         
         gbc.gridy = personalLabels.length + 2;
@@ -459,12 +513,12 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
             // Label
             gbc.gridx = 0;
             JLabel label = new JLabel(policyLabels[i]);
-            label.setFont(new Font("Segoe UI", Font.BOLD, 16));
-            label.setForeground(new Color(41, 41, 41)); // Dark gray color
+            label.setFont(Theme.font(Font.BOLD, 16));
+            label.setForeground(Theme.TEXT);
             
             // Add icon for date fields
             if (fieldIndex == 2 || fieldIndex == 3) {
-                label.setIcon(new ImageIcon("calendar.png"));
+                ResourceManager.icon("calendar.png", label::setIcon);
                 label.setIconTextGap(10);
                 label.setHorizontalTextPosition(SwingConstants.LEFT);
                 label.setVerticalTextPosition(SwingConstants.CENTER);
@@ -475,85 +529,61 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
             // Field
             gbc.gridx = 1;
             if (fieldIndex == 0) { // Policy Type
-                JComboBox<String> policyType = new JComboBox<>(new String[]{
-                    "Health Insurance",
-                    "Life Insurance",
-                    "Auto Insurance",
-                    "Home Insurance",
-                    "Business Insurance"
-                });
-                policyType.setFont(new Font("Segoe UI", Font.PLAIN, 16));
+                JComboBox<String> policyType = new JComboBox<>(POLICY_TYPES);
+                policyType.setFont(Theme.font(Font.PLAIN, 16));
                 policyType.setBackground(Color.WHITE);
-                policyType.setForeground(new Color(41, 41, 41));
-                policyType.setBorder(BorderFactory.createCompoundBorder(
-                    BorderFactory.createLineBorder(new Color(41, 41, 41), 2),
-                    BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                ));
-
-                // Add hover effect
-                policyType.addMouseListener(new MouseAdapter() {
-                    public void mouseEntered(MouseEvent e) {
-                        policyType.setBorder(BorderFactory.createCompoundBorder(
-                            BorderFactory.createLineBorder(new Color(41, 128, 185), 2),
-                            BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                        ));
-                    }
-                    public void mouseExited(MouseEvent e) {
-                        if (!policyType.hasFocus()) {
-                            policyType.setBorder(BorderFactory.createCompoundBorder(
-                                BorderFactory.createLineBorder(new Color(41, 41, 41), 2),
-                                BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                            ));
-                        }
-                    }
-                });
+                policyType.setForeground(Theme.TEXT);
 
-                // Add focus effect
-                policyType.addFocusListener(new FocusAdapter() {
-                    public void focusGained(FocusEvent e) {
-                        policyType.setBorder(BorderFactory.createCompoundBorder(
-                            BorderFactory.createLineBorder(new Color(41, 128, 185), 2),
-                            BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                        ));
-                    }
-                    public void focusLost(FocusEvent e) {
-                        policyType.setBorder(BorderFactory.createCompoundBorder(
-                            BorderFactory.createLineBorder(new Color(41, 41, 41), 2),
-                            BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                        ));
-                    }
-                });
+                // Hover and focus effects, shared with the other form fields
+                Theme.installFieldHighlight(policyType);
 
                 policyFields[fieldIndex] = policyType;
             } else if (fieldIndex == 1) { // Policy Number
                 JTextField policyNumber = new JTextField(25);
-                policyNumber.setFont(new Font("Segoe UI", Font.PLAIN, 16));
+                policyNumber.setFont(Theme.font(Font.PLAIN, 16));
                 policyNumber.setBackground(Color.WHITE);
-                policyNumber.setForeground(new Color(41, 41, 41));
-                policyNumber.setCaretColor(new Color(41, 128, 185));
-                policyNumber.setBorder(BorderFactory.createCompoundBorder(
-                    BorderFactory.createLineBorder(new Color(41, 41, 41), 2),
-                    BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                ));
+                policyNumber.setForeground(Theme.TEXT);
+                policyNumber.setCaretColor(Theme.PRIMARY);
+                policyNumber.setBorder(Theme.fieldBorder(Theme.FieldState.NORMAL));
                 policyFields[fieldIndex] = policyNumber;
+
+                // Format and uniqueness are checked in memory once typing pauses. Until the
+                // index is warmed it cannot answer, so the database is asked in the background.
+                validationScheduler.watch(policyNumber,
+                    text -> {
+                        CustomerValidator.ValidationResult result = CustomerValidator.validateField(
+                            CustomerValidator.Field.POLICY_NUMBER, text);
+                        return result.isValid() ? CustomerValidator.validatePolicyNumberUnique(text, policyNumbers) : result;
+                    },
+                    text -> {
+                        CustomerService service = customerService;
+                        if (policyNumbers.isReady() || service == null) {
+                            return null;
+                        }
+                        return CustomerValidator.policyNumberUniqueness(service.find(text) != null);
+                    },
+                    result -> {
+                        policyNumber.setBorder(Theme.validationBorder(result.isValid()));
+                        policyNumber.setToolTipText(result.getMessage());
+                    });
             } else { // Dates
                 JDateChooser dateChooser = new JDateChooser();
-                dateChooser.setFont(new Font("Segoe UI", Font.PLAIN, 16));
+                dateChooser.setFont(Theme.font(Font.PLAIN, 16));
                 dateChooser.setBackground(Color.WHITE);
-                dateChooser.setForeground(new Color(41, 41, 41));
+                dateChooser.setForeground(Theme.TEXT);
                 dateChooser.setDate(new Date());
                 dateChooser.setDateFormatString("dd/MM/yyyy");
                 
                 // Customize the date chooser appearance
                 dateChooser.getJCalendar().setBackground(Color.WHITE);
-                dateChooser.getJCalendar().setForeground(new Color(41, 41, 41));
-                dateChooser.getJCalendar().setFont(new Font("Segoe UI", Font.PLAIN, 14));
+                dateChooser.getJCalendar().setForeground(Theme.TEXT);
+                dateChooser.getJCalendar().setFont(Theme.font(Font.PLAIN, 14));
                 
                 // Set the button appearance
                 JButton dateButton = dateChooser.getCalendarButton();
                 dateButton.setBackground(Color.WHITE);
-                dateButton.setForeground(new Color(41, 41, 41));
-                dateButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
+                dateButton.setForeground(Theme.TEXT);
+                dateButton.setFont(Theme.font(Font.BOLD, 14));
                 dateButton.setBorderPainted(false);
                 dateButton.setFocusPainted(false);
                 
@@ -561,48 +591,33 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
                 JPanel datePanel = new JPanel(new BorderLayout());
                 datePanel.setOpaque(false);
                 datePanel.add(dateChooser, BorderLayout.CENTER);
-                datePanel.setBorder(BorderFactory.createCompoundBorder(
-                    BorderFactory.createLineBorder(new Color(41, 41, 41), 2),
-                    BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                ));
+                datePanel.setBorder(Theme.fieldBorder(Theme.FieldState.NORMAL));
 
                 // Add hover effect for date panel
                 datePanel.addMouseListener(new MouseAdapter() {
                     public void mouseEntered(MouseEvent e) {
-                        datePanel.setBorder(BorderFactory.createCompoundBorder(
-                            BorderFactory.createLineBorder(new Color(41, 128, 185), 2),
-                            BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                        ));
-                        dateButton.setBackground(new Color(41, 128, 185));
+                        datePanel.setBorder(Theme.fieldBorder(Theme.FieldState.FOCUSED));
+                        dateButton.setBackground(Theme.PRIMARY);
                         dateButton.setForeground(Color.WHITE);
                     }
                     public void mouseExited(MouseEvent e) {
-                        datePanel.setBorder(BorderFactory.createCompoundBorder(
-                            BorderFactory.createLineBorder(new Color(41, 41, 41), 2),
-                            BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                        ));
+                        datePanel.setBorder(Theme.fieldBorder(Theme.FieldState.NORMAL));
                         dateButton.setBackground(Color.WHITE);
-                        dateButton.setForeground(new Color(41, 41, 41));
+                        dateButton.setForeground(Theme.TEXT);
                     }
                 });
 
                 // Add focus effect for date panel
                 datePanel.addFocusListener(new FocusAdapter() {
                     public void focusGained(FocusEvent e) {
-                        datePanel.setBorder(BorderFactory.createCompoundBorder(
-                            BorderFactory.createLineBorder(new Color(41, 128, 185), 2),
-                            BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                        ));
-                        dateButton.setBackground(new Color(41, 128, 185));
+                        datePanel.setBorder(Theme.fieldBorder(Theme.FieldState.FOCUSED));
+                        dateButton.setBackground(Theme.PRIMARY);
                         dateButton.setForeground(Color.WHITE);
                     }
                     public void focusLost(FocusEvent e) {
-                        datePanel.setBorder(BorderFactory.createCompoundBorder(
-                            BorderFactory.createLineBorder(new Color(41, 41, 41), 2),
-                            BorderFactory.createEmptyBorder(8, 12, 8, 12)
-                        ));
+                        datePanel.setBorder(Theme.fieldBorder(Theme.FieldState.NORMAL));
                         dateButton.setBackground(Color.WHITE);
-                        dateButton.setForeground(new Color(41, 41, 41));
+                        dateButton.setForeground(Theme.TEXT);
                     }
                 });
                 
@@ -617,13 +632,13 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
         buttonPanel.setOpaque(false);
 
         // Submit Button
-        JButton submitButton = createStyledButton("Submit", new Color(41, 128, 185));
-        submitButton.setFont(new Font("Segoe UI", Font.BOLD, 18)); // Enhanced button font
-        submitButton.addActionListener(e -> handleSubmit(personalFields, policyFields));
+        JButton submitButton = createStyledButton("Submit", Theme.PRIMARY);
+        submitButton.setFont(Theme.font(Font.BOLD, 18)); // Enhanced button font
+        submitButton.addActionListener(e -> handleSubmit(submitButton, personalFields, policyFields));
         
         // Clear Button
-        JButton clearButton = createStyledButton("Clear", new Color(231, 76, 60));
-        clearButton.setFont(new Font("Segoe UI", Font.BOLD, 18)); // Enhanced button font
+        JButton clearButton = createStyledButton("Clear", Theme.DANGER);
+        clearButton.setFont(Theme.font(Font.BOLD, 18)); // Enhanced button font
         clearButton.addActionListener(e -> clearFields(personalFields, policyFields));
         
         buttonPanel.add(submitButton);
@@ -637,6 +652,159 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
         return panel;
     }
 
+    // ==========================================
+    // Customer Search Panel Creation
+    // ==========================================
+    private JPanel createSearchPanel() {
+        JPanel panel = new JPanel(new BorderLayout(0, 10));
+        panel.setOpaque(false);
+        panel.setBorder(Theme.DIALOG_PADDING);
+
+        // Filters
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        filterPanel.setOpaque(false);
+        JTextField nameFilter = new JTextField(12);
+        JTextField emailFilter = new JTextField(12);
+        JTextField phoneFilter = new JTextField(10);
+        JComboBox<String> policyTypeFilter = new JComboBox<>();
+        policyTypeFilter.addItem("All Policy Types");
+        for (String type : POLICY_TYPES) {
+            policyTypeFilter.addItem(type);
+        }
+        JTextField policyNumberFilter = new JTextField(10);
+
+        String[] filterLabels = {"Name:", "Email:", "Phone:", "Policy Type:", "Policy No:"};
+        JComponent[] filterFields = {nameFilter, emailFilter, phoneFilter, policyTypeFilter, policyNumberFilter};
+        for (int i = 0; i < filterLabels.length; i++) {
+            JLabel label = new JLabel(filterLabels[i]);
+            label.setFont(Theme.font(Font.BOLD, 14));
+            label.setForeground(Theme.TEXT);
+            filterFields[i].setFont(Theme.font(Font.PLAIN, 14));
+            filterPanel.add(label);
+            filterPanel.add(filterFields[i]);
+        }
+
+        JButton findButton = createStyledButton("Search", Theme.PRIMARY);
+        findButton.setPreferredSize(new Dimension(120, 35));
+        findButton.setFont(Theme.font(Font.BOLD, 14));
+        filterPanel.add(findButton);
+
+        // Direct lookup by customer ID or policy number, served from the policy cache when possible
+        JLabel lookupLabel = new JLabel("Open ID / Policy No:");
+        lookupLabel.setFont(Theme.font(Font.BOLD, 14));
+        lookupLabel.setForeground(Theme.TEXT);
+        JTextField lookupField = new JTextField(10);
+        lookupField.setFont(Theme.font(Font.PLAIN, 14));
+        lookupField.addActionListener(e -> openCustomer(lookupField.getText().trim()));
+        filterPanel.add(lookupLabel);
+        filterPanel.add(lookupField);
+
+        // Results; rows are fetched page by page as the table scrolls to them
+        customerTableModel = new CustomerTableModel(persistenceExecutor);
+        JTable table = new JTable(customerTableModel);
+        table.setFont(Theme.font(Font.PLAIN, 14));
+        table.setRowHeight(24);
+        table.getTableHeader().setFont(Theme.font(Font.BOLD, 14));
+        table.setFillsViewportHeight(true);
+        JScrollPane tableScroll = new JScrollPane(table);
+        table.addMouseListener(new MouseAdapter() {
+            public void mouseClicked(MouseEvent e) {
+                int row = table.rowAtPoint(e.getPoint());
+                if (e.getClickCount() == 2 && row >= 0) {
+                    CustomerRecord record = customerTableModel.getRecord(row);
+                    if (record != null) {
+                        openCustomer(String.valueOf(record.getId()));
+                    }
+                }
+            }
+        });
+
+        searchStatusLabel = new JLabel("Enter filters and press Search");
+        searchStatusLabel.setFont(Theme.font(Font.PLAIN, 13));
+        searchStatusLabel.setForeground(Theme.TEXT);
+
+        customerTableModel.setPageListener(new CustomerTableModel.PageListener() {
+            @Override
+            public void onPageLoaded(int loadedRows, boolean hasMore, long elapsedMillis) {
+                searchStatusLabel.setText(loadedRows + (hasMore ? "+" : "") + " customers"
+                    + " (last page " + elapsedMillis + " ms)");
+            }
+
+            @Override
+            public void onPageFailed(Throwable error) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                System.err.println("Customer search failed: " + cause.getMessage());
+                searchStatusLabel.setText("Search failed: " + cause.getMessage());
+            }
+        });
+
+        ActionListener runSearch = e -> {
+            if (customerSearch == null) {
+                searchStatusLabel.setText(databaseStartup != null && !databaseStartup.isDone()
+                    ? "Still connecting to the database..." : "Database is not connected");
+                return;
+            }
+            Object policyType = policyTypeFilter.getSelectedIndex() == 0 ? null : policyTypeFilter.getSelectedItem();
+            searchStatusLabel.setText("Searching...");
+            customerTableModel.search(customerSearch, new CustomerSearch.Filter(
+                nameFilter.getText(),
+                emailFilter.getText(),
+                phoneFilter.getText(),
+                policyType == null ? null : policyType.toString(),
+                policyNumberFilter.getText()));
+        };
+        findButton.addActionListener(runSearch);
+        for (JComponent field : filterFields) {
+            if (field instanceof JTextField) {
+                ((JTextField) field).addActionListener(runSearch);
+            }
+        }
+
+        panel.add(filterPanel, BorderLayout.NORTH);
+        panel.add(tableScroll, BorderLayout.CENTER);
+        panel.add(searchStatusLabel, BorderLayout.SOUTH);
+        return panel;
+    }
+
+    private void openCustomer(String key) {
+        if (key.isEmpty()) {
+            return;
+        }
+        CustomerService service = customerService;
+        if (service == null) {
+            searchStatusLabel.setText("Database is not connected");
+            return;
+        }
+        persistenceExecutor.submit(() -> service.find(key))
+            .whenComplete((record, error) -> SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    System.err.println("Customer lookup failed: " + cause.getMessage());
+                    JOptionPane.showMessageDialog(this,
+                        "Could not load customer: " + cause.getMessage(),
+                        "Database Error",
+                        JOptionPane.ERROR_MESSAGE);
+                } else if (record == null) {
+                    JOptionPane.showMessageDialog(this,
+                        "No customer found for " + key,
+                        "Customer Lookup",
+                        JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JTextArea details = new JTextArea(formatCustomerDetails(record));
+                    details.setFont(Theme.font(Font.PLAIN, 14));
+                    details.setEditable(false);
+                    JOptionPane.showMessageDialog(this, details,
+                        "Customer " + record.getId(), JOptionPane.PLAIN_MESSAGE);
+                }
+            }));
+    }
+
+    private void toggleSearchView(JButton searchButton) {
+        showingSearch = !showingSearch;
+        ((CardLayout) contentCards.getLayout()).show(contentCards, showingSearch ? "search" : "form");
+        searchButton.setText(showingSearch ? "Customer Form" : "Search Customers");
+    }
+
     // ==========================================
     // Section Panel Creation
     // ==========================================
@@ -644,8 +812,8 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         panel.setOpaque(false);
         JLabel label = new JLabel(title);
-        label.setFont(new Font("Arial", Font.BOLD, 18));
-        label.setForeground(new Color(41, 128, 185));
+        label.setFont(Theme.font("Arial", Font.BOLD, 18));
+        label.setForeground(Theme.PRIMARY);
         panel.add(label);
         return panel;
     }
@@ -655,23 +823,15 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
     // ==========================================
     private JButton createStyledButton(String text, Color color) {
         JButton button = new JButton(text);
-        button.setFont(new Font("Segoe UI", Font.BOLD, 18));
+        button.setFont(Theme.font(Font.BOLD, 18));
         button.setForeground(Color.WHITE);
-        button.setBackground(color);
         button.setFocusPainted(false);
         button.setBorderPainted(false);
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        button.setCursor(Theme.HAND);
         button.setPreferredSize(new Dimension(150, 45)); // Larger buttons
         
-        // Add hover effect
-        button.addMouseListener(new MouseAdapter() {
-            public void mouseEntered(MouseEvent e) {
-                button.setBackground(color.darker());
-            }
-            public void mouseExited(MouseEvent e) {
-                button.setBackground(color);
-            }
-        });
+        // Add hover effect; the darker shade is worked out once, not on every hover
+        Theme.installHoverBackground(button, color, color.darker());
         
         return button;
     }
@@ -680,92 +840,33 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
     // Field Validation
     // ==========================================
     private boolean validateFields(JTextField[] personalFields, JComponent[] policyFields) {
-        boolean isValid = true;
         StringBuilder errorMessage = new StringBuilder();
-
-        // Validate Personal Information
-        // Name validation
-        String name = personalFields[0].getText().trim();
-        if (name.isEmpty() || !name.matches("^[a-zA-Z\\s]{2,50}$")) {
-            errorMessage.append("• Name must be 2-50 characters long and contain only letters and spaces\n");
-            personalFields[0].setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(new Color(231, 76, 60), 2),
-                BorderFactory.createEmptyBorder(8, 12, 8, 12)
-            ));
-            isValid = false;
-        }
-
-        // Email validation
-        String email = personalFields[1].getText().trim();
-        if (email.isEmpty() || !email.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
-            errorMessage.append("• Please enter a valid email address\n");
-            personalFields[1].setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(new Color(231, 76, 60), 2),
-                BorderFactory.createEmptyBorder(8, 12, 8, 12)
-            ));
-            isValid = false;
-        }
-
-        // Phone validation
-        String phone = personalFields[2].getText().trim();
-        if (phone.isEmpty() || !phone.matches("^\\d{10}$")) {
-            errorMessage.append("• Phone number must be 10 digits\n");
-            personalFields[2].setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(new Color(231, 76, 60), 2),
-                BorderFactory.createEmptyBorder(8, 12, 8, 12)
-            ));
-            isValid = false;
-        }
-
-        // Address validation
-        String address = personalFields[3].getText().trim();
-        if (address.isEmpty() || address.length() < 5) {
-            errorMessage.append("• Address must be at least 5 characters long\n");
-            personalFields[3].setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(new Color(231, 76, 60), 2),
-                BorderFactory.createEmptyBorder(8, 12, 8, 12)
-            ));
-            isValid = false;
-        }
-
-        // Validate Policy Information
-        // Policy Type validation
-        String policyType = ((JComboBox<?>)policyFields[0]).getSelectedItem().toString();
-        if (policyType.isEmpty()) {
-            errorMessage.append("• Please select a policy type\n");
-            isValid = false;
-        }
-
-        // Policy Number validation
-        String policyNumber = ((JTextField)policyFields[1]).getText().trim();
-        if (policyNumber.isEmpty() || !policyNumber.matches("^[A-Z]{2}\\d{6}$")) {
-            errorMessage.append("• Policy number must be in format: XX123456 (2 letters followed by 6 digits)\n");
-            ((JTextField)policyFields[1]).setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(new Color(231, 76, 60), 2),
-                BorderFactory.createEmptyBorder(8, 12, 8, 12)
-            ));
-            isValid = false;
-        }
-
-        // Date validation
-        Date startDate = ((JDateChooser)((JPanel)policyFields[2]).getComponent(0)).getDate();
-        Date endDate = ((JDateChooser)((JPanel)policyFields[3]).getComponent(0)).getDate();
-        Date currentDate = new Date();
-
-        if (startDate == null) {
-            errorMessage.append("• Please select a start date\n");
-            isValid = false;
-        } else if (startDate.before(currentDate)) {
-            errorMessage.append("• Start date cannot be in the past\n");
-            isValid = false;
+        CustomerRecord record = readCustomerRecord(personalFields, policyFields);
+        List<CustomerValidator.ValidationResult> failures = CustomerValidator.validate(record);
+        CustomerValidator.ValidationResult unique = CustomerValidator.validatePolicyNumberUnique(
+            record.getPolicyNumber(), policyNumbers);
+        if (!unique.isValid()) {
+            failures = new ArrayList<>(failures);
+            failures.add(unique);
         }
-
-        if (endDate == null) {
-            errorMessage.append("• Please select an end date\n");
-            isValid = false;
-        } else if (endDate.before(startDate)) {
-            errorMessage.append("• End date must be after start date\n");
-            isValid = false;
+        boolean isValid = failures.isEmpty();
+
+        for (CustomerValidator.ValidationResult failure : failures) {
+            errorMessage.append("• ").append(failure.getMessage()).append("\n");
+
+            // Highlight the text fields; the combo box and date pickers keep their borders
+            JComponent field = null;
+            switch (failure.getField()) {
+                case NAME: field = personalFields[0]; break;
+                case EMAIL: field = personalFields[1]; break;
+                case PHONE: field = personalFields[2]; break;
+                case ADDRESS: field = personalFields[3]; break;
+                case POLICY_NUMBER: field = policyFields[1]; break;
+                default: break;
+            }
+            if (field != null) {
+                field.setBorder(Theme.fieldBorder(Theme.FieldState.INVALID));
+            }
         }
 
         if (!isValid) {
@@ -775,18 +876,18 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
             
             // Create header panel
             JPanel headerPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-            headerPanel.setBackground(new Color(231, 76, 60));
+            headerPanel.setBackground(Theme.DANGER);
             JLabel headerLabel = new JLabel("Please correct the following errors:");
-            headerLabel.setFont(new Font("Segoe UI", Font.BOLD, 16));
+            headerLabel.setFont(Theme.font(Font.BOLD, 16));
             headerLabel.setForeground(Color.WHITE);
             headerPanel.add(headerLabel);
             
             // Create message panel
             JPanel messagePanel = new JPanel(new BorderLayout());
-            messagePanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+            messagePanel.setBorder(Theme.DIALOG_PADDING);
             JTextArea messageArea = new JTextArea(errorMessage.toString());
-            messageArea.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-            messageArea.setForeground(new Color(41, 41, 41));
+            messageArea.setFont(Theme.font(Font.PLAIN, 14));
+            messageArea.setForeground(Theme.TEXT);
             messageArea.setBackground(Color.WHITE);
             messageArea.setEditable(false);
             messageArea.setLineWrap(true);
@@ -796,9 +897,9 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
             // Create button panel
             JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
             JButton okButton = new JButton("OK");
-            okButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
+            okButton.setFont(Theme.font(Font.BOLD, 14));
             okButton.setForeground(Color.WHITE);
-            okButton.setBackground(new Color(231, 76, 60));
+            okButton.setBackground(Theme.DANGER);
             okButton.setFocusPainted(false);
             okButton.setBorderPainted(false);
             okButton.addActionListener(e -> errorDialog.dispose());
@@ -819,82 +920,186 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
     // ==========================================
     // Form Submission Handling
     // ==========================================
-    private void handleSubmit(JTextField[] personalFields, JComponent[] policyFields) {
-        if (validateFields(personalFields, policyFields)) {
-            // Save to database
-            saveCustomerDetails(
-                personalFields[0].getText(),
-                personalFields[1].getText(),
-                personalFields[2].getText(),
-                personalFields[3].getText(),
-                ((JComboBox<?>)policyFields[0]).getSelectedItem().toString(),
-                ((JTextField)policyFields[1]).getText(),
-                ((JDateChooser)((JPanel)policyFields[2]).getComponent(0)).getDate(),
-                ((JDateChooser)((JPanel)policyFields[3]).getComponent(0)).getDate()
-            );
-
-            // Create success dialog
-            JDialog successDialog = new JDialog(this, "Success", true);
-            successDialog.setLayout(new BorderLayout());
-            
-            // Create header panel
-            JPanel headerPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-            headerPanel.setBackground(new Color(46, 204, 113));
-            JLabel headerLabel = new JLabel("Customer Details Submitted Successfully!");
-            headerLabel.setFont(new Font("Segoe UI", Font.BOLD, 16));
-            headerLabel.setForeground(Color.WHITE);
-            headerPanel.add(headerLabel);
-            
-            // Create message panel
-            JPanel messagePanel = new JPanel(new BorderLayout());
-            messagePanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-            
-            StringBuilder message = new StringBuilder();
-            message.append("Personal Information:\n");
-            message.append("• Name: ").append(personalFields[0].getText()).append("\n");
-            message.append("• Email: ").append(personalFields[1].getText()).append("\n");
-            message.append("• Phone: ").append(personalFields[2].getText()).append("\n");
-            message.append("• Address: ").append(personalFields[3].getText()).append("\n\n");
-            
-            message.append("Policy Information:\n");
-            message.append("• Policy Type: ").append(((JComboBox<?>)policyFields[0]).getSelectedItem()).append("\n");
-            message.append("• Policy Number: ").append(((JTextField)policyFields[1]).getText()).append("\n");
-            message.append("• Start Date: ").append(((JDateChooser)((JPanel)policyFields[2]).getComponent(0)).getDate()).append("\n");
-            message.append("• End Date: ").append(((JDateChooser)((JPanel)policyFields[3]).getComponent(0)).getDate());
-            
-            JTextArea messageArea = new JTextArea(message.toString());
-            messageArea.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-            messageArea.setForeground(new Color(41, 41, 41));
-            messageArea.setBackground(Color.WHITE);
-            messageArea.setEditable(false);
-            messageArea.setLineWrap(true);
-            messageArea.setWrapStyleWord(true);
-            messagePanel.add(new JScrollPane(messageArea), BorderLayout.CENTER);
-            
-            // Create button panel
-            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
-            JButton okButton = new JButton("OK");
-            okButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
-            okButton.setForeground(Color.WHITE);
-            okButton.setBackground(new Color(46, 204, 113));
-            okButton.setFocusPainted(false);
-            okButton.setBorderPainted(false);
-            okButton.addActionListener(e -> {
-                successDialog.dispose();
-                clearFields(personalFields, policyFields);
-            });
-            buttonPanel.add(okButton);
-            
-            successDialog.add(headerPanel, BorderLayout.NORTH);
-            successDialog.add(messagePanel, BorderLayout.CENTER);
-            successDialog.add(buttonPanel, BorderLayout.SOUTH);
-            
-            successDialog.setSize(400, 400);
-            successDialog.setLocationRelativeTo(this);
-            successDialog.setVisible(true);
+    private void handleSubmit(JButton submitButton, JTextField[] personalFields, JComponent[] policyFields) {
+        if (!validateFields(personalFields, policyFields)) {
+            return;
+        }
+        CustomerService service = customerService;
+        OfflineQueue queue = offlineQueue;
+        boolean connecting = databaseStartup == null || !databaseStartup.isDone();
+        // While connecting, or while earlier submissions are still waiting, take this one
+        // straight to the queue: no waiting on a dead connection, and replay keeps the order
+        if (queue != null && (connecting || service == null || queue.isBacklogged())) {
+            String reason = connecting ? "The database is still connecting"
+                : service == null ? "The database is unavailable"
+                : "Earlier submissions are still waiting for the database";
+            queueSubmission(queue, reason, submitButton, readCustomerRecord(personalFields, policyFields),
+                personalFields, policyFields);
+            return;
+        }
+        if (connecting) {
+            JOptionPane.showMessageDialog(this,
+                "The database is still connecting. Please try again in a moment.",
+                "Database Connecting",
+                JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        if (service == null) {
+            JOptionPane.showMessageDialog(this,
+                "Database connection is not available. Please restart the application.",
+                "Database Error",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        // Capture the form on the EDT; the save itself runs on a persistence thread
+        CustomerRecord record = readCustomerRecord(personalFields, policyFields);
+
+        setSubmitting(submitButton, true);
+        persistenceExecutor.submit(() -> service.create(record))
+            .whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+                setSubmitting(submitButton, false);
+                if (error == null && !result.isCreated()) {
+                    // The service re-checks on save, so a number taken since the form was checked lands here
+                    JOptionPane.showMessageDialog(this,
+                        result.getMessage("\n"),
+                        result.getStatus() == CustomerService.Status.DUPLICATE ? "Duplicate Policy Number" : "Validation Error",
+                        JOptionPane.ERROR_MESSAGE);
+                } else if (error != null && queue != null && OfflineQueue.isOutage(error)) {
+                    System.err.println("Database unavailable, queueing submission: " + error.getMessage());
+                    queueSubmission(queue, "The database is unavailable", submitButton, record,
+                        personalFields, policyFields);
+                } else if (error != null) {
+                    System.err.println("Error saving customer details: " + error.getMessage());
+                    updateDatabaseStatus(false, "Error saving data");
+                    JOptionPane.showMessageDialog(this,
+                        "Error saving data to database: " + error.getMessage(),
+                        "Database Error",
+                        JOptionPane.ERROR_MESSAGE);
+                } else {
+                    updateDatabaseStatus(true, "Connected");
+                    showSubmitSuccessDialog(record, personalFields, policyFields);
+                }
+            }));
+    }
+
+    // Reported as queued only once the record is on disk; the replay adds it later
+    // reason says why it was not saved directly, e.g. "The database is still connecting"
+    private void queueSubmission(OfflineQueue queue, String reason, JButton submitButton, CustomerRecord record,
+                                 JTextField[] personalFields, JComponent[] policyFields) {
+        setSubmitting(submitButton, true);
+        queue.enqueue(record).whenComplete((entry, error) -> SwingUtilities.invokeLater(() -> {
+            setSubmitting(submitButton, false);
+            if (error != null) {
+                updateDatabaseStatus(false, "Error saving data");
+                JOptionPane.showMessageDialog(this,
+                    reason + " and the submission could not be saved locally: " + error.getMessage(),
+                    "Database Error",
+                    JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            updateQueueStatus();
+            JOptionPane.showMessageDialog(this,
+                reason + ", so these details were saved on this computer.\n"
+                    + "They will be added automatically as soon as the database accepts them ("
+                    + queue.getPendingCount() + " waiting).\n\n" + formatCustomerDetails(record),
+                "Submission Queued",
+                JOptionPane.INFORMATION_MESSAGE);
+            clearFields(personalFields, policyFields);
+        }));
+    }
+
+    private CustomerRecord readCustomerRecord(JTextField[] personalFields, JComponent[] policyFields) {
+        Object policyType = ((JComboBox<?>)policyFields[0]).getSelectedItem();
+        return new CustomerRecord(
+            personalFields[0].getText().trim(),
+            personalFields[1].getText().trim(),
+            personalFields[2].getText().trim(),
+            personalFields[3].getText().trim(),
+            policyType == null ? "" : policyType.toString(),
+            ((JTextField)policyFields[1]).getText().trim(),
+            ((JDateChooser)((JPanel)policyFields[2]).getComponent(0)).getDate(),
+            ((JDateChooser)((JPanel)policyFields[3]).getComponent(0)).getDate()
+        );
+    }
+
+    private void setSubmitting(JButton submitButton, boolean submitting) {
+        submitButton.setEnabled(!submitting);
+        submitButton.setText(submitting ? "Saving..." : "Submit");
+        setCursor(submitting ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+        if (submitting && dbStatusLabel != null) {
+            dbStatusLabel.setText("Database: Saving...");
         }
     }
 
+    private String formatCustomerDetails(CustomerRecord record) {
+        StringBuilder message = new StringBuilder();
+        message.append("Personal Information:\n");
+        message.append("• Name: ").append(record.getName()).append("\n");
+        message.append("• Email: ").append(record.getEmail()).append("\n");
+        message.append("• Phone: ").append(record.getPhone()).append("\n");
+        message.append("• Address: ").append(record.getAddress()).append("\n\n");
+        
+        message.append("Policy Information:\n");
+        message.append("• Policy Type: ").append(record.getPolicyType()).append("\n");
+        message.append("• Policy Number: ").append(record.getPolicyNumber()).append("\n");
+        message.append("• Start Date: ").append(record.getStartDate()).append("\n");
+        message.append("• End Date: ").append(record.getEndDate()).append("\n");
+        message.append("• Quoted Premium: ").append(PremiumEngine.format(premiumEngine.quoteCents(record)));
+        return message.toString();
+    }
+
+    private void showSubmitSuccessDialog(CustomerRecord record, JTextField[] personalFields, JComponent[] policyFields) {
+        // Create success dialog
+        JDialog successDialog = new JDialog(this, "Success", true);
+        successDialog.setLayout(new BorderLayout());
+        
+        // Create header panel
+        JPanel headerPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        headerPanel.setBackground(Theme.SUCCESS);
+        JLabel headerLabel = new JLabel("Customer Details Submitted Successfully!");
+        headerLabel.setFont(Theme.font(Font.BOLD, 16));
+        headerLabel.setForeground(Color.WHITE);
+        headerPanel.add(headerLabel);
+        
+        // Create message panel
+        JPanel messagePanel = new JPanel(new BorderLayout());
+        messagePanel.setBorder(Theme.DIALOG_PADDING);
+        
+        String message = "Generated Customer ID: " + record.getId() + "\n\n" + formatCustomerDetails(record);
+        
+        JTextArea messageArea = new JTextArea(message);
+        messageArea.setFont(Theme.font(Font.PLAIN, 14));
+        messageArea.setForeground(Theme.TEXT);
+        messageArea.setBackground(Color.WHITE);
+        messageArea.setEditable(false);
+        messageArea.setLineWrap(true);
+        messageArea.setWrapStyleWord(true);
+        messagePanel.add(new JScrollPane(messageArea), BorderLayout.CENTER);
+        
+        // Create button panel
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        JButton okButton = new JButton("OK");
+        okButton.setFont(Theme.font(Font.BOLD, 14));
+        okButton.setForeground(Color.WHITE);
+        okButton.setBackground(Theme.SUCCESS);
+        okButton.setFocusPainted(false);
+        okButton.setBorderPainted(false);
+        okButton.addActionListener(e -> {
+            successDialog.dispose();
+            clearFields(personalFields, policyFields);
+        });
+        buttonPanel.add(okButton);
+        
+        successDialog.add(headerPanel, BorderLayout.NORTH);
+        successDialog.add(messagePanel, BorderLayout.CENTER);
+        successDialog.add(buttonPanel, BorderLayout.SOUTH);
+        
+        successDialog.setSize(400, 400);
+        successDialog.setLocationRelativeTo(this);
+        successDialog.setVisible(true);
+    }
+
     // ==========================================
     // Field Clearing
     // ==========================================
@@ -902,20 +1107,18 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
         // Clear personal fields
         for (JTextField field : personalFields) {
             field.setText("");
-            field.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(new Color(255, 255, 255, 200), 2),
-                BorderFactory.createEmptyBorder(8, 12, 8, 12)
-            ));
+            field.setBorder(Theme.fieldBorder(Theme.FieldState.CLEARED));
         }
         
         // Clear policy fields
         ((JComboBox<?>)policyFields[0]).setSelectedIndex(0);
         ((JTextField)policyFields[1]).setText("");
-        ((JTextField)policyFields[1]).setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(new Color(255, 255, 255, 200), 2),
-            BorderFactory.createEmptyBorder(8, 12, 8, 12)
-        ));
+        ((JTextField)policyFields[1]).setBorder(Theme.fieldBorder(Theme.FieldState.CLEARED));
         
+        // Drop checks still waiting on the edits above, so they do not mark the empty fields
+        validationScheduler.cancel(personalFields);
+        validationScheduler.cancel((JTextField) policyFields[1]);
+
         // Set dates to current date
         Date currentDate = new Date();
         ((JDateChooser)((JPanel)policyFields[2]).getComponent(0)).setDate(currentDate);
@@ -927,13 +1130,13 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
     // ==========================================
     private JPanel createFooterPanel() {
         JPanel footer = new JPanel(new BorderLayout());
-        footer.setBackground(new Color(41, 128, 185, 230)); // Semi-transparent blue
+        footer.setBackground(Theme.BAR);
         footer.setPreferredSize(new Dimension(getWidth(), 60));
-        footer.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+        footer.setBorder(Theme.BAR_PADDING);
 
         // Company Information
         JLabel companyInfo = new JLabel("© 2024 Insurance Management System | Contact: support@insurance.com | Phone: 1800-208-8787");
-        companyInfo.setFont(new Font("Arial", Font.PLAIN, 12));
+        companyInfo.setFont(Theme.font("Arial", Font.PLAIN, 12));
         companyInfo.setForeground(Color.WHITE);
         companyInfo.setHorizontalAlignment(SwingConstants.CENTER);
         footer.add(companyInfo, BorderLayout.CENTER);
@@ -970,14 +1173,30 @@ public class InsuranceSystem extends JFrame implements LoginPanel.LoginListener
     // Main Method
     // ==========================================
     public static void main(String[] args) {
+        StartupTimings.start();
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
             e.printStackTrace();
         }
 
+        ConfigLoader configLoader = new ConfigLoader();
+        DatabaseConfig config;
+        try {
+            config = configLoader.load();
+        } catch (ConfigException e) {
+            System.err.println(e.getMessage());
+            JOptionPane.showMessageDialog(null, e.getMessage(), "Configuration Error", JOptionPane.ERROR_MESSAGE);
+            System.exit(1);
+            return;
+        }
+
+        // Decode the images while the EDT builds the window
+        ResourceManager.setCacheDirectory(config.getResourceCacheDir());
+        ResourceManager.preload("main.jpg", "login.jpg", "calendar.png");
+
         SwingUtilities.invokeLater(() -> {
-            InsuranceSystem system = new InsuranceSystem();
+            InsuranceSystem system = new InsuranceSystem(configLoader, config);
             system.setVisible(true);
             
             // Add window listener to close database connection
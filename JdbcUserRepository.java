@@ -0,0 +1,105 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class JdbcUserRepository implements UserRepository {
+    // ==========================================
+    // Statements
+    // ==========================================
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE app_users ("
+        + "username VARCHAR2(50) PRIMARY KEY, "
+        + "full_name VARCHAR2(100), "
+        + "email VARCHAR2(100), "
+        + "password VARCHAR2(200))";
+    private static final String SELECT_ALL_SQL = "SELECT full_name, email, username, password FROM app_users";
+    private static final String UPSERT_SQL = "MERGE INTO app_users u "
+        + "USING (SELECT CAST(? AS VARCHAR2(50)) AS username, CAST(? AS VARCHAR2(100)) AS full_name, "
+        + "CAST(? AS VARCHAR2(100)) AS email, CAST(? AS VARCHAR2(200)) AS password FROM dual) s "
+        + "ON (u.username = s.username) "
+        + "WHEN MATCHED THEN UPDATE SET u.full_name = s.full_name, u.email = s.email, u.password = s.password "
+        + "WHEN NOT MATCHED THEN INSERT (username, full_name, email, password) "
+        + "VALUES (s.username, s.full_name, s.email, s.password)";
+    private static final int FETCH_SIZE = 1000;
+
+    private final ConnectionPool connectionPool;
+
+    public JdbcUserRepository(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    // ==========================================
+    // Loading
+    // ==========================================
+    @Override
+    public Collection<User> loadAll() {
+        try (Connection connection = connectionPool.getConnection()) {
+            ensureTable(connection);
+            List<User> users = new ArrayList<>();
+            try (PreparedStatement pstmt = connection.prepareStatement(SELECT_ALL_SQL)) {
+                pstmt.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        users.add(new User(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4)));
+                    }
+                }
+            }
+            return users;
+        } catch (SQLException e) {
+            throw new UserStoreException("Could not load users from the database", e);
+        }
+    }
+
+    private void ensureTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeQuery("SELECT 1 FROM app_users WHERE 1 = 0").close();
+        } catch (SQLException missing) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute(CREATE_TABLE_SQL);
+                System.out.println("Created table app_users");
+            }
+        }
+    }
+
+    // ==========================================
+    // Saving
+    // ==========================================
+    @Override
+    public void save(User user) {
+        saveAll(Collections.singletonList(user));
+    }
+
+    // One batched MERGE per call, committed as a single transaction
+    @Override
+    public void saveAll(Collection<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        try (Connection connection = connectionPool.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement upsert = connection.prepareStatement(UPSERT_SQL)) {
+                for (User user : users) {
+                    upsert.setString(1, user.getUsername());
+                    upsert.setString(2, user.getFullName());
+                    upsert.setString(3, user.getEmail());
+                    upsert.setString(4, user.getPassword());
+                    upsert.addBatch();
+                }
+                upsert.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new UserStoreException("Could not save users to the database", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        // The connection pool is owned by InsuranceSystem
+    }
+}
@@ -2,18 +2,16 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import javax.swing.border.*;
-import javax.imageio.ImageIO;
-import java.io.File;
-import java.io.IOException;
 
 public class LoginPanel extends JPanel {
     private JTextField usernameField;
     private JPasswordField passwordField;
     private JLabel statusLabel;
     private LoginListener loginListener;
-    private Image backgroundImage;
+    private ScaledBackground background;
     private CardLayout cardLayout;
     private JPanel mainPanel;
+    private boolean loginInProgress;
 
     public interface LoginListener {
         void onLoginSuccess();
@@ -26,18 +24,17 @@ public class LoginPanel extends JPanel {
     }
 
     private void loadBackgroundImage() {
-        try {
-            backgroundImage = ImageIO.read(new File("login.jpg"));
-        } catch (IOException e) {
-            System.err.println("Error loading background image: " + e.getMessage());
-        }
+        ResourceManager.whenLoaded("login.jpg", image -> {
+            background = new ScaledBackground(image);
+            repaint();
+        });
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        if (backgroundImage != null) {
-            g.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
+        if (background != null) {
+            background.paint(g, this);
         }
     }
 
@@ -48,67 +45,48 @@ public class LoginPanel extends JPanel {
         // Create login panel
         JPanel loginFormPanel = new JPanel(null);
         loginFormPanel.setPreferredSize(new Dimension(400, 400));
-        loginFormPanel.setBackground(new Color(255, 255, 255, 230));
-        loginFormPanel.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(new Color(200, 200, 200)),
-            BorderFactory.createEmptyBorder(20, 20, 20, 20)
-        ));
+        loginFormPanel.setBackground(Theme.FORM_BACKGROUND);
+        loginFormPanel.setBorder(Theme.LOGIN_FORM_BORDER);
 
         // Title
         JLabel title = new JLabel("Insurance Login", SwingConstants.CENTER);
-        title.setFont(new Font("Arial", Font.BOLD, 30));
+        title.setFont(Theme.font("Arial", Font.BOLD, 30));
         title.setBounds(50, 30, 300, 40);
         loginFormPanel.add(title);
 
         // Username
         JLabel userLabel = new JLabel("Username:");
-        userLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        userLabel.setFont(Theme.font("Arial", Font.BOLD, 14));
         userLabel.setBounds(50, 100, 100, 25);
         loginFormPanel.add(userLabel);
 
         usernameField = new JTextField();
         usernameField.setBounds(50, 130, 300, 35);
-        usernameField.setFont(new Font("Arial", Font.PLAIN, 14));
-        usernameField.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(new Color(200, 200, 200)),
-            BorderFactory.createEmptyBorder(5, 10, 5, 10)
-        ));
+        usernameField.setFont(Theme.font("Arial", Font.PLAIN, 14));
+        usernameField.setBorder(Theme.LOGIN_FIELD_BORDER);
         loginFormPanel.add(usernameField);
 
         // Password
         JLabel passLabel = new JLabel("Password:");
-        passLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        passLabel.setFont(Theme.font("Arial", Font.BOLD, 14));
         passLabel.setBounds(50, 180, 100, 25);
         loginFormPanel.add(passLabel);
 
         passwordField = new JPasswordField();
         passwordField.setBounds(50, 210, 300, 35);
-        passwordField.setFont(new Font("Arial", Font.PLAIN, 14));
-        passwordField.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(new Color(200, 200, 200)),
-            BorderFactory.createEmptyBorder(5, 10, 5, 10)
-        ));
+        passwordField.setFont(Theme.font("Arial", Font.PLAIN, 14));
+        passwordField.setBorder(Theme.LOGIN_FIELD_BORDER);
         loginFormPanel.add(passwordField);
 
         // Login Button
         JButton loginBtn = new JButton("Login");
         loginBtn.setBounds(50, 270, 300, 40);
-        loginBtn.setFont(new Font("Arial", Font.BOLD, 16));
+        loginBtn.setFont(Theme.font("Arial", Font.BOLD, 16));
         loginBtn.setForeground(Color.WHITE);
-        loginBtn.setBackground(new Color(41, 128, 185));
         loginBtn.setFocusPainted(false);
         loginBtn.setBorderPainted(false);
-        loginBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        
-        // Add hover effect
-        loginBtn.addMouseListener(new MouseAdapter() {
-            public void mouseEntered(MouseEvent e) {
-                loginBtn.setBackground(new Color(52, 152, 219));
-            }
-            public void mouseExited(MouseEvent e) {
-                loginBtn.setBackground(new Color(41, 128, 185));
-            }
-        });
+        loginBtn.setCursor(Theme.HAND);
+        Theme.installHoverBackground(loginBtn, Theme.PRIMARY, Theme.PRIMARY_HOVER);
         
         loginBtn.addActionListener(e -> handleLogin());
         loginFormPanel.add(loginBtn);
@@ -116,21 +94,12 @@ public class LoginPanel extends JPanel {
         // Sign Up Button
         JButton signUpBtn = new JButton("Sign Up");
         signUpBtn.setBounds(50, 320, 300, 40);
-        signUpBtn.setFont(new Font("Arial", Font.BOLD, 16));
+        signUpBtn.setFont(Theme.font("Arial", Font.BOLD, 16));
         signUpBtn.setForeground(Color.WHITE);
-        signUpBtn.setBackground(new Color(46, 204, 113));
         signUpBtn.setFocusPainted(false);
         signUpBtn.setBorderPainted(false);
-        signUpBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        
-        signUpBtn.addMouseListener(new MouseAdapter() {
-            public void mouseEntered(MouseEvent e) {
-                signUpBtn.setBackground(new Color(39, 174, 96));
-            }
-            public void mouseExited(MouseEvent e) {
-                signUpBtn.setBackground(new Color(46, 204, 113));
-            }
-        });
+        signUpBtn.setCursor(Theme.HAND);
+        Theme.installHoverBackground(signUpBtn, Theme.SUCCESS, Theme.SUCCESS_HOVER);
         
         signUpBtn.addActionListener(e -> showSignUpPanel());
         loginFormPanel.add(signUpBtn);
@@ -138,13 +107,13 @@ public class LoginPanel extends JPanel {
         // Status Label
         statusLabel = new JLabel("", SwingConstants.CENTER);
         statusLabel.setBounds(50, 370, 300, 25);
-        statusLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        statusLabel.setFont(Theme.font("Arial", Font.PLAIN, 14));
         loginFormPanel.add(statusLabel);
 
         // Add a decorative line
         JSeparator separator = new JSeparator();
         separator.setBounds(50, 90, 300, 2);
-        separator.setForeground(new Color(200, 200, 200));
+        separator.setForeground(Theme.DIVIDER);
         loginFormPanel.add(separator);
 
         // Create sign up panel
@@ -153,7 +122,7 @@ public class LoginPanel extends JPanel {
             public void onSignUpSuccess() {
                 showLoginPanel();
                 statusLabel.setText("Account created successfully! Please login.");
-                statusLabel.setForeground(new Color(46, 204, 113));
+                statusLabel.setForeground(Theme.SUCCESS);
             }
 
             @Override
@@ -181,15 +150,29 @@ public class LoginPanel extends JPanel {
             return;
         }
 
-        User user = UserService.getInstance().loginUser(username, password);
-        if (user != null) {
-            clearLoginFields();
-            statusLabel.setText("");
-            loginListener.onLoginSuccess();
-        } else {
-            statusLabel.setText("Invalid username or password!");
-            statusLabel.setForeground(Color.RED);
+        if (loginInProgress) {
+            return;
         }
+        loginInProgress = true;
+        statusLabel.setText("Signing in...");
+        statusLabel.setForeground(Theme.PRIMARY);
+
+        // Password verification is deliberately slow, so keep it off the EDT
+        UserService.getInstance().loginUserAsync(username, password)
+            .whenComplete((user, error) -> SwingUtilities.invokeLater(() -> {
+                loginInProgress = false;
+                if (error != null) {
+                    statusLabel.setText("Too many login attempts, please try again.");
+                    statusLabel.setForeground(Color.RED);
+                } else if (user != null) {
+                    clearLoginFields();
+                    statusLabel.setText("");
+                    loginListener.onLoginSuccess();
+                } else {
+                    statusLabel.setText("Invalid username or password!");
+                    statusLabel.setForeground(Color.RED);
+                }
+            }));
     }
 
     private void showSignUpPanel() {
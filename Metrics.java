@@ -0,0 +1,422 @@
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+public final class Metrics {
+    // ==========================================
+    // Operations
+    // ==========================================
+    // Callers take System.nanoTime() before the operation and report the outcome:
+    //
+    //   long started = System.nanoTime();
+    //   ... work ...
+    //   Metrics.success(Metrics.Operation.INSERT, started);
+    //
+    // Recording is lock-free and allocation-free, so it is safe on hot paths.
+    public enum Operation {
+        CONNECT("connect"),
+        ID_ALLOCATION("id-allocation"),
+        INSERT("insert"),
+        BATCH_INSERT("batch-insert"),
+        LOGIN("login"),
+        VALIDATION("validation");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    private static final OperationStats[] STATS = new OperationStats[Operation.values().length];
+
+    static {
+        for (Operation operation : Operation.values()) {
+            STATS[operation.ordinal()] = new OperationStats(operation);
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static void success(Operation operation, long startNanos) {
+        STATS[operation.ordinal()].record(System.nanoTime() - startNanos, true);
+    }
+
+    public static void failure(Operation operation, long startNanos) {
+        STATS[operation.ordinal()].record(System.nanoTime() - startNanos, false);
+    }
+
+    // A retry is counted on its own; the attempt that finally succeeds or fails is recorded as usual
+    public static void retry(Operation operation) {
+        STATS[operation.ordinal()].retries.increment();
+    }
+
+    public static OperationStats get(Operation operation) {
+        return STATS[operation.ordinal()];
+    }
+
+    public static void reset() {
+        for (OperationStats stats : STATS) {
+            stats.reset();
+        }
+    }
+
+    // ==========================================
+    // Latency Histogram
+    // ==========================================
+    // Log-linear buckets: every power of two is split into 8 sub-buckets, so a
+    // percentile is off by at most 12.5%. 352 counters cover 1 ns to about 2.4 hours;
+    // anything longer lands in the last bucket.
+    static final class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int MAX_EXPONENT = 43;
+        private static final int BUCKETS = (MAX_EXPONENT + 1) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            if (nanos < 0) {
+                nanos = 0;
+            }
+            counts.incrementAndGet(bucketOf(nanos));
+            count.increment();
+            totalNanos.add(nanos);
+            if (nanos > maxNanos.get()) {
+                maxNanos.accumulateAndGet(nanos, Math::max);
+            }
+        }
+
+        static int bucketOf(long nanos) {
+            if (nanos < SUB_BUCKETS) {
+                return (int) nanos;
+            }
+            int exponent = Math.min(63 - Long.numberOfLeadingZeros(nanos), MAX_EXPONENT);
+            if (exponent == MAX_EXPONENT) {
+                return MAX_EXPONENT * SUB_BUCKETS + SUB_BUCKETS - 1;
+            }
+            int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return exponent * SUB_BUCKETS + subBucket;
+        }
+
+        // Largest value that falls into the bucket, so percentiles never under-report
+        static long upperBoundOf(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS;
+            long subBucket = bucket % SUB_BUCKETS;
+            return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+        }
+
+        long getCount() { return count.sum(); }
+        long getMaxNanos() { return maxNanos.get(); }
+
+        double getMeanNanos() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / (double) n;
+        }
+
+        long percentileNanos(double percentile) {
+            long total = 0;
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile / 100.0 * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), maxNanos.get());
+                }
+            }
+            return maxNanos.get();
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.set(i, 0);
+            }
+            count.reset();
+            totalNanos.reset();
+            maxNanos.set(0);
+        }
+    }
+
+    // ==========================================
+    // Rolling Throughput
+    // ==========================================
+    // One counter per second for the last minute. A slot is reused once its second
+    // has passed; an increment racing with the reuse may be lost, which is fine for a rate.
+    static final class RollingThroughput {
+        private static final int WINDOW_SECONDS = 60;
+
+        private final AtomicLongArray counts = new AtomicLongArray(WINDOW_SECONDS);
+        private final AtomicLongArray seconds = new AtomicLongArray(WINDOW_SECONDS);
+        private volatile long firstSecond = -1;
+
+        void record() {
+            long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+            if (firstSecond < 0) {
+                firstSecond = second;
+            }
+            int slot = (int) Math.floorMod(second, (long) WINDOW_SECONDS);
+            long slotSecond = seconds.get(slot);
+            if (slotSecond != second && seconds.compareAndSet(slot, slotSecond, second)) {
+                counts.set(slot, 0);
+            }
+            counts.incrementAndGet(slot);
+        }
+
+        // Operations per second over the last minute, or since the first one if that is sooner
+        double getPerSecond() {
+            long now = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+            long first = firstSecond;
+            if (first < 0) {
+                return 0;
+            }
+            long total = 0;
+            for (int slot = 0; slot < WINDOW_SECONDS; slot++) {
+                long age = now - seconds.get(slot);
+                if (age >= 0 && age < WINDOW_SECONDS) {
+                    total += counts.get(slot);
+                }
+            }
+            long span = Math.max(1, Math.min(WINDOW_SECONDS, now - first + 1));
+            return total / (double) span;
+        }
+
+        void reset() {
+            for (int slot = 0; slot < WINDOW_SECONDS; slot++) {
+                counts.set(slot, 0);
+                seconds.set(slot, 0);
+            }
+            firstSecond = -1;
+        }
+    }
+
+    // ==========================================
+    // Per-Operation Statistics
+    // ==========================================
+    // Attribute names follow the getters: Count, Successes, P95Millis, ...
+    public interface OperationMXBean {
+        long getCount();
+        long getSuccesses();
+        long getFailures();
+        long getRetries();
+        double getMeanMillis();
+        double getP50Millis();
+        double getP95Millis();
+        double getP99Millis();
+        double getMaxMillis();
+        double getThroughputPerSecond();
+        void reset();
+    }
+
+    public static final class OperationStats implements OperationMXBean {
+        private final Operation operation;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final RollingThroughput throughput = new RollingThroughput();
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+
+        private OperationStats(Operation operation) {
+            this.operation = operation;
+        }
+
+        private void record(long nanos, boolean succeeded) {
+            latency.record(nanos);
+            throughput.record();
+            (succeeded ? successes : failures).increment();
+        }
+
+        public Operation getOperation() { return operation; }
+
+        @Override public long getCount() { return latency.getCount(); }
+        @Override public long getSuccesses() { return successes.sum(); }
+        @Override public long getFailures() { return failures.sum(); }
+        @Override public long getRetries() { return retries.sum(); }
+        @Override public double getMeanMillis() { return latency.getMeanNanos() / 1_000_000.0; }
+        @Override public double getP50Millis() { return latency.percentileNanos(50) / 1_000_000.0; }
+        @Override public double getP95Millis() { return latency.percentileNanos(95) / 1_000_000.0; }
+        @Override public double getP99Millis() { return latency.percentileNanos(99) / 1_000_000.0; }
+        @Override public double getMaxMillis() { return latency.getMaxNanos() / 1_000_000.0; }
+        @Override public double getThroughputPerSecond() { return throughput.getPerSecond(); }
+
+        @Override
+        public void reset() {
+            latency.reset();
+            throughput.reset();
+            successes.reset();
+            failures.reset();
+            retries.reset();
+        }
+    }
+
+    // ==========================================
+    // JMX
+    // ==========================================
+    public interface DumpMXBean {
+        String dumpText();
+        String dumpJson();
+        void writeDump(String path) throws IOException;
+        void reset();
+    }
+
+    private static boolean registered;
+
+    // ims:type=Operation,name=<label> per operation plus ims:type=Metrics for dumps;
+    // visible in JConsole or VisualVM under "ims"
+    public static synchronized void registerMBeans() {
+        if (registered) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (OperationStats stats : STATS) {
+                server.registerMBean(new StandardMBean(stats, OperationMXBean.class, true),
+                    new ObjectName("ims:type=Operation,name=" + stats.operation.getLabel()));
+            }
+            server.registerMBean(new StandardMBean(new DumpMXBean() {
+                @Override public String dumpText() { return Metrics.dumpText(); }
+                @Override public String dumpJson() { return Metrics.dumpJson(); }
+                @Override public void writeDump(String path) throws IOException { Metrics.writeDump(new File(path)); }
+                @Override public void reset() { Metrics.reset(); }
+            }, DumpMXBean.class, true), new ObjectName("ims:type=Metrics"));
+            registered = true;
+        } catch (JMException e) {
+            System.err.println("Could not register metrics with JMX: " + e.getMessage());
+        }
+    }
+
+    // ==========================================
+    // Dumps
+    // ==========================================
+    public static String dumpText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-14s %9s %9s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+            "operation", "count", "ok", "failed", "retries", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms", "ops/s"));
+        for (OperationStats s : STATS) {
+            sb.append(String.format(Locale.ROOT, "%-14s %9d %9d %7d %7d %9.3f %9.3f %9.3f %9.3f %9.3f %9.1f%n",
+                s.operation.getLabel(), s.getCount(), s.getSuccesses(), s.getFailures(), s.getRetries(),
+                s.getMeanMillis(), s.getP50Millis(), s.getP95Millis(), s.getP99Millis(), s.getMaxMillis(),
+                s.getThroughputPerSecond()));
+        }
+        return sb.toString();
+    }
+
+    public static String dumpJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"timestamp\":").append(System.currentTimeMillis()).append(",\"operations\":{");
+        for (int i = 0; i < STATS.length; i++) {
+            OperationStats s = STATS[i];
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(Json.quote(s.operation.getLabel())).append(":{")
+                .append("\"count\":").append(s.getCount())
+                .append(",\"successes\":").append(s.getSuccesses())
+                .append(",\"failures\":").append(s.getFailures())
+                .append(",\"retries\":").append(s.getRetries())
+                .append(String.format(Locale.ROOT, ",\"meanMillis\":%.4f,\"p50Millis\":%.4f,\"p95Millis\":%.4f"
+                        + ",\"p99Millis\":%.4f,\"maxMillis\":%.4f,\"throughputPerSecond\":%.2f}",
+                    s.getMeanMillis(), s.getP50Millis(), s.getP95Millis(), s.getP99Millis(), s.getMaxMillis(),
+                    s.getThroughputPerSecond()));
+        }
+        return sb.append("}}").toString();
+    }
+
+    // A .json file gets the JSON dump, anything else the text table. The file is
+    // replaced atomically so a reader never sees half a dump.
+    public static void writeDump(File file) throws IOException {
+        String content = file.getName().endsWith(".json") ? dumpJson() + "\n" : dumpText();
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Could not create directory " + parent);
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        Files.write(temp.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // One line for status bars: p95 per operation that has seen any traffic
+    public static String getStatsSummary() {
+        StringBuilder sb = new StringBuilder("Latency p95:");
+        boolean any = false;
+        for (OperationStats s : STATS) {
+            if (s.getCount() > 0) {
+                sb.append(any ? ", " : " ").append(s.operation.getLabel())
+                    .append(String.format(Locale.ROOT, " %.2f ms", s.getP95Millis()));
+                any = true;
+            }
+        }
+        return any ? sb.toString() : sb.append(" no operations yet").toString();
+    }
+
+    // ==========================================
+    // Periodic Dump
+    // ==========================================
+    private static ScheduledExecutorService dumper;
+    private static File dumpFile;
+
+    public static synchronized void startDumping(File file, long intervalMillis) {
+        stopDumping();
+        dumpFile = file;
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleWithFixedDelay(Metrics::dumpQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        System.out.println("Writing metrics to " + file + " every " + intervalMillis / 1000 + " s");
+    }
+
+    // Stops the periodic dump and writes a final one
+    public static synchronized void stopDumping() {
+        if (dumper == null) {
+            return;
+        }
+        dumper.shutdownNow();
+        dumper = null;
+        dumpQuietly();
+        dumpFile = null;
+    }
+
+    private static void dumpQuietly() {
+        File file = dumpFile;
+        if (file == null) {
+            return;
+        }
+        try {
+            writeDump(file);
+        } catch (IOException e) {
+            System.err.println("Could not write metrics to " + file + ": " + e.getMessage());
+        }
+    }
+}
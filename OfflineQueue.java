@@ -0,0 +1,450 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class OfflineQueue implements AutoCloseable {
+    // ==========================================
+    // Log Format
+    // ==========================================
+    // An append-only file of JSON lines. A submission is forced to disk before the
+    // desk is told it was queued; a "done" or "rejected" line follows once the
+    // database has answered for it. On start-up every submission without an answer
+    // is pending again, in file order. A line torn by a crash mid-write does not
+    // parse and is skipped: its submission was never acknowledged. "day" is the start
+    // of the day the desk submitted on, which replay validates the start date against.
+    //
+    //   {"op":"submit","key":"<uuid>","day":<millis>,"record":{...}}
+    //   {"op":"done","key":"<uuid>"}
+    //   {"op":"rejected","key":"<uuid>","reason":"..."}
+    public static class Entry {
+        private final String key;
+        private final CustomerRecord record;
+        private final long queuedDay;
+
+        Entry(String key, CustomerRecord record, long queuedDay) {
+            this.key = key;
+            this.record = record;
+            this.queuedDay = queuedDay;
+        }
+
+        // Idempotency key; recorded with the row so a replay never inserts it twice
+        public String getKey() { return key; }
+        public CustomerRecord getRecord() { return record; }
+        // CustomerValidator.startOfToday() when the submission was taken
+        public long getQueuedDay() { return queuedDay; }
+    }
+
+    private static class Append {
+        final Entry entry;
+        final String line;
+        final CompletableFuture<Entry> written = new CompletableFuture<>();
+
+        Append(Entry entry, String line) {
+            this.entry = entry;
+            this.line = line;
+        }
+    }
+
+    // ==========================================
+    // Queue State
+    // ==========================================
+    // The file and the pending list are only changed on the writer thread, so a
+    // submission is pending exactly when its line is on disk without an answer.
+    private final Path path;
+    private final Path rejectedPath;
+    private final int batchSize;
+    private final long retryMillis;
+    private final ConcurrentLinkedQueue<Append> incoming = new ConcurrentLinkedQueue<>();
+    private final Deque<Entry> pending = new ArrayDeque<>();
+    private final ExecutorService writer;
+    private final ScheduledExecutorService replayer;
+    private FileChannel channel;
+    // Set when a write failed part way, so the next one starts on a fresh line
+    private boolean lineOpen;
+    private volatile CustomerService service;
+    private volatile Runnable changeListener;
+
+    // ==========================================
+    // Metrics
+    // ==========================================
+    private final AtomicLong queuedCount = new AtomicLong();
+    private final AtomicLong replayedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong syncCount = new AtomicLong();
+    private final AtomicLong syncedLines = new AtomicLong();
+    private volatile long recoveredCount;
+    private volatile long lastBatchMillis;
+    private volatile String lastError;
+
+    // Reads what an earlier run left pending; replay waits for start()
+    public OfflineQueue(String file, int batchSize, long retryMillis) throws IOException {
+        this.path = Paths.get(file).toAbsolutePath();
+        this.rejectedPath = Paths.get(path + ".rejected");
+        this.batchSize = Math.max(1, batchSize);
+        this.retryMillis = retryMillis;
+        recover();
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "offline-queue-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.replayer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "offline-queue-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Invoked after submissions are queued and after every replayed batch
+    public void setChangeListener(Runnable changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    // Replays every retryMillis until the queue is empty, then keeps watching for more
+    public synchronized void start(CustomerService service) {
+        if (this.service == null) {
+            this.service = service;
+            replayer.scheduleWithFixedDelay(this::replaySafely, 0, retryMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // ==========================================
+    // Recovery
+    // ==========================================
+    @SuppressWarnings("unchecked")
+    private void recover() throws IOException {
+        Files.createDirectories(path.getParent());
+        Map<String, Entry> open = new LinkedHashMap<>();
+        if (Files.isRegularFile(path)) {
+            // Decoded leniently: a torn multi-byte character only spoils its own line
+            String[] lines = new String(Files.readAllBytes(path), StandardCharsets.UTF_8).split("\n");
+            for (int i = 0; i < lines.length; i++) {
+                String line = lines[i].trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    Map<String, Object> json = Json.parseObject(line);
+                    String key = String.valueOf(json.get("key"));
+                    if (!"submit".equals(json.get("op"))) {
+                        open.remove(key);
+                    } else if (json.get("record") instanceof Map) {
+                        // Lines from before "day" was recorded are judged by today, as they were then
+                        long day = json.get("day") instanceof Long ? (Long) json.get("day")
+                            : CustomerValidator.startOfToday();
+                        open.put(key, new Entry(key, CustomerJson.fromJson((Map<String, Object>) json.get("record")), day));
+                    } else {
+                        throw new IllegalArgumentException("submission without a record");
+                    }
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping line " + (i + 1) + " of " + path + ": " + e.getMessage());
+                }
+            }
+        }
+        pending.addAll(open.values());
+        recoveredCount = open.size();
+        // Start from a file that holds only what is still pending
+        rewrite(open.values());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+        if (!open.isEmpty()) {
+            System.out.println("Offline queue: " + open.size() + " submission(s) waiting from an earlier run");
+        }
+    }
+
+    // Written to a temporary file and moved into place, like the image cache
+    private void rewrite(Collection<Entry> entries) throws IOException {
+        Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        StringBuilder sb = new StringBuilder();
+        for (Entry entry : entries) {
+            sb.append(submitLine(entry)).append('\n');
+        }
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            writeFully(out, sb);
+            out.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ==========================================
+    // Queueing
+    // ==========================================
+    // Completes once the submission is on disk, or exceptionally if it could not be
+    // written. Submissions that arrive while one force is running share the next.
+    public CompletableFuture<Entry> enqueue(CustomerRecord record) {
+        Entry entry = new Entry(UUID.randomUUID().toString(), record, CustomerValidator.startOfToday());
+        Append append = new Append(entry, submitLine(entry));
+        incoming.add(append);
+        writer.execute(this::flushIncoming);
+        return append.written;
+    }
+
+    // True while anything is waiting, so new submissions queue behind it and the
+    // database still sees them in the order they were taken
+    public boolean isBacklogged() {
+        return !incoming.isEmpty() || getPendingCount() > 0;
+    }
+
+    private void flushIncoming() {
+        List<Append> batch = new ArrayList<>();
+        for (Append append = incoming.poll(); append != null; append = incoming.poll()) {
+            batch.add(append);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Append append : batch) {
+            sb.append(append.line).append('\n');
+        }
+        try {
+            append(sb, batch.size());
+        } catch (IOException e) {
+            System.err.println("Could not write offline queue " + path + ": " + e.getMessage());
+            for (Append append : batch) {
+                append.written.completeExceptionally(e);
+            }
+            return;
+        }
+        synchronized (pending) {
+            for (Append append : batch) {
+                pending.addLast(append.entry);
+            }
+        }
+        queuedCount.addAndGet(batch.size());
+        for (Append append : batch) {
+            append.written.complete(append.entry);
+        }
+        notifyChange();
+    }
+
+    // Writer thread only: one write and one force for the whole batch of lines
+    private void append(StringBuilder lines, int lineCount) throws IOException {
+        if (lineOpen) {
+            lines.insert(0, '\n');
+        }
+        lineOpen = true;
+        writeFully(channel, lines);
+        channel.force(false);
+        lineOpen = false;
+        syncCount.incrementAndGet();
+        syncedLines.addAndGet(lineCount);
+    }
+
+    private static void writeFully(FileChannel out, CharSequence text) throws IOException {
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(text.toString());
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static String submitLine(Entry entry) {
+        StringBuilder sb = new StringBuilder("{\"op\":\"submit\",\"key\":").append(Json.quote(entry.getKey()))
+            .append(",\"day\":").append(entry.getQueuedDay()).append(",\"record\":");
+        return CustomerJson.appendJson(sb, entry.getRecord(), PremiumEngine.NO_RATE).append('}').toString();
+    }
+
+    // ==========================================
+    // Replay
+    // ==========================================
+    private void replaySafely() {
+        try {
+            replayPending();
+            lastError = null;
+        } catch (SQLException e) {
+            // Everything stays queued for the next attempt. An outage is expected and
+            // logged once; any other failure needs someone to look, so it says so.
+            if (!String.valueOf(e.getMessage()).equals(lastError)) {
+                System.err.println((isOutage(e) ? "Offline queue waiting for the database: "
+                    : "Offline queue replay failed, will retry: ") + e.getMessage());
+            }
+            lastError = String.valueOf(e.getMessage());
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            System.err.println("Offline queue replay failed: " + e.getMessage());
+        }
+    }
+
+    // Oldest first, batchSize at a time; each batch is answered on disk before the next
+    private void replayPending() throws SQLException, IOException, InterruptedException {
+        CustomerService target = service;
+        if (target == null) {
+            return;
+        }
+        while (true) {
+            List<Entry> batch = nextBatch();
+            if (batch.isEmpty()) {
+                return;
+            }
+            long started = System.nanoTime();
+            List<String> keys = new ArrayList<>(batch.size());
+            List<CustomerRecord> records = new ArrayList<>(batch.size());
+            List<Long> queuedDays = new ArrayList<>(batch.size());
+            for (Entry entry : batch) {
+                keys.add(entry.getKey());
+                records.add(entry.getRecord());
+                queuedDays.add(entry.getQueuedDay());
+            }
+            List<CustomerService.CreateResult> results = target.createQueued(keys, records, queuedDays);
+
+            StringBuilder answers = new StringBuilder();
+            StringBuilder rejections = new StringBuilder();
+            int rejected = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                Entry entry = batch.get(i);
+                CustomerService.CreateResult result = results.get(i);
+                if (result.isCreated()) {
+                    answers.append("{\"op\":\"done\",\"key\":").append(Json.quote(entry.getKey())).append("}\n");
+                    continue;
+                }
+                rejected++;
+                String reason = result.getMessage("; ");
+                System.err.println("Queued submission for policy " + entry.getRecord().getPolicyNumber()
+                    + " was rejected: " + reason);
+                answers.append("{\"op\":\"rejected\",\"key\":").append(Json.quote(entry.getKey()))
+                    .append(",\"reason\":").append(Json.quote(reason)).append("}\n");
+                rejections.append("{\"key\":").append(Json.quote(entry.getKey()))
+                    .append(",\"reason\":").append(Json.quote(reason)).append(",\"record\":");
+                CustomerJson.appendJson(rejections, entry.getRecord(), PremiumEngine.NO_RATE).append("}\n");
+            }
+            try {
+                writer.submit(() -> {
+                    answer(batch, answers, rejections);
+                    return null;
+                }).get();
+            } catch (ExecutionException e) {
+                // The rows are in; the keys stop them going in twice when this is retried
+                throw new IOException("Could not record replayed batch: " + e.getCause().getMessage(), e.getCause());
+            }
+            replayedCount.addAndGet(batch.size() - rejected);
+            rejectedCount.addAndGet(rejected);
+            lastBatchMillis = (System.nanoTime() - started) / 1_000_000;
+            notifyChange();
+        }
+    }
+
+    private List<Entry> nextBatch() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        synchronized (pending) {
+            Iterator<Entry> it = pending.iterator();
+            while (it.hasNext() && batch.size() < batchSize) {
+                batch.add(it.next());
+            }
+        }
+        return batch;
+    }
+
+    // Writer thread: records the answers, then drops the batch from the pending list
+    private void answer(List<Entry> batch, StringBuilder answers, StringBuilder rejections) throws IOException {
+        if (rejections.length() > 0) {
+            try (FileChannel out = FileChannel.open(rejectedPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                writeFully(out, rejections);
+                out.force(false);
+            }
+        }
+        append(answers, batch.size());
+        synchronized (pending) {
+            for (Entry entry : batch) {
+                pending.remove(entry);
+            }
+        }
+        // Once everything is answered the log has nothing left worth reading
+        if (getPendingCount() == 0 && incoming.isEmpty()) {
+            channel.truncate(0);
+            channel.force(true);
+        }
+    }
+
+    // Worth queueing only when the database could not be reached: the session is gone
+    // (the pool's SQLState class 08 rule) or no connection came in time. Anything else
+    // (bad data, constraints, schema or permissions) would fail again on replay, so the
+    // desk sees it as an error instead.
+    public static boolean isOutage(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof SQLTimeoutException || cause instanceof SQLTransientConnectionException
+            || cause instanceof SQLException && ConnectionPool.isSessionLost((SQLException) cause);
+    }
+
+    private void notifyChange() {
+        Runnable listener = changeListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    // ==========================================
+    // Metrics
+    // ==========================================
+    public int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    public long getQueuedCount() { return queuedCount.get(); }
+    public long getReplayedCount() { return replayedCount.get(); }
+    public long getRejectedCount() { return rejectedCount.get(); }
+    public long getSyncCount() { return syncCount.get(); }
+    public long getRecoveredCount() { return recoveredCount; }
+    public long getLastBatchMillis() { return lastBatchMillis; }
+    public String getLastError() { return lastError; }
+
+    public String getStatsSummary() {
+        long syncs = syncCount.get();
+        return String.format("Offline queue: %d pending (%d from last run), %d queued, %d replayed, %d rejected"
+                + " | %d fsyncs, %.1f lines each, last batch %d ms",
+            getPendingCount(), recoveredCount, getQueuedCount(), getReplayedCount(), getRejectedCount(),
+            syncs, syncs == 0 ? 0.0 : syncedLines.get() / (double) syncs, lastBatchMillis);
+    }
+
+    // ==========================================
+    // Shutdown
+    // ==========================================
+    // Lets queued writes reach the disk; anything still pending is replayed next start
+    @Override
+    public void close() {
+        replayer.shutdownNow();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Could not close offline queue " + path + ": " + e.getMessage());
+        }
+    }
+}
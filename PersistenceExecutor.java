@@ -0,0 +1,135 @@
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PersistenceExecutor {
+    // ==========================================
+    // Executor Setup
+    // ==========================================
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    // ==========================================
+    // Metrics
+    // ==========================================
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong totalQueueNanos = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    // platformThreads is the pool size used when virtual threads are not available
+    public PersistenceExecutor(int platformThreads) {
+        ExecutorService virtualExecutor = createVirtualThreadExecutor();
+        if (virtualExecutor != null) {
+            executor = virtualExecutor;
+            virtualThreads = true;
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(Math.max(1, platformThreads), r -> {
+                Thread thread = new Thread(r, "persistence-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            virtualThreads = false;
+        }
+    }
+
+    // Looked up reflectively so the application still runs on JDK 8-20; null there
+    static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // ==========================================
+    // Task Submission
+    // ==========================================
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long submittedAt = System.nanoTime();
+        queued.incrementAndGet();
+        submittedCount.incrementAndGet();
+
+        try {
+            executor.execute(() -> {
+                queued.decrementAndGet();
+                running.incrementAndGet();
+                totalQueueNanos.addAndGet(System.nanoTime() - submittedAt);
+                try {
+                    result.complete(task.call());
+                    completedCount.incrementAndGet();
+                } catch (Throwable t) {
+                    failedCount.incrementAndGet();
+                    result.completeExceptionally(t);
+                } finally {
+                    running.decrementAndGet();
+                    long latency = System.nanoTime() - submittedAt;
+                    totalLatencyNanos.addAndGet(latency);
+                    maxLatencyNanos.accumulateAndGet(latency, Math::max);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            failedCount.incrementAndGet();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    // ==========================================
+    // Queue and Latency Metrics
+    // ==========================================
+    public boolean isUsingVirtualThreads() { return virtualThreads; }
+    public int getQueueDepth() { return queued.get(); }
+    public int getRunningCount() { return running.get(); }
+    public long getSubmittedCount() { return submittedCount.get(); }
+    public long getCompletedCount() { return completedCount.get(); }
+    public long getFailedCount() { return failedCount.get(); }
+
+    public double getAverageQueueWaitMillis() {
+        long started = completedCount.get() + failedCount.get();
+        return started == 0 ? 0 : totalQueueNanos.get() / (double) started / 1_000_000.0;
+    }
+
+    public double getAverageLatencyMillis() {
+        long finished = completedCount.get() + failedCount.get();
+        return finished == 0 ? 0 : totalLatencyNanos.get() / (double) finished / 1_000_000.0;
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1_000_000.0;
+    }
+
+    public String getStatsSummary() {
+        return String.format("Writes: %d queued, %d running | latency avg %.1f ms, max %.1f ms "
+                + "(queue wait avg %.1f ms) | %d done, %d failed",
+            getQueueDepth(), getRunningCount(), getAverageLatencyMillis(), getMaxLatencyMillis(),
+            getAverageQueueWaitMillis(), getCompletedCount(), getFailedCount());
+    }
+
+    // ==========================================
+    // Shutdown
+    // ==========================================
+    public void shutdown(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PolicyCache {
+    // ==========================================
+    // Cache State
+    // ==========================================
+    // Entries are keyed by customer ID in access order, so the eldest entry is
+    // the least recently used one. A second map finds the ID for a policy number.
+    private volatile int maxEntries;
+    private volatile long ttlMillis;
+    private final Map<Long, CacheEntry> entries;
+    private final Map<String, Long> idsByPolicyNumber = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    private static class CacheEntry {
+        final CustomerRecord record;
+        final long expiresAt;
+
+        CacheEntry(CustomerRecord record, long expiresAt) {
+            this.record = record;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // Runs on a cache miss, outside the cache lock; may return null when nothing matches
+    public interface Loader {
+        CustomerRecord load() throws SQLException;
+    }
+
+    public PolicyCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<Long, CacheEntry>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CacheEntry> eldest) {
+                if (size() <= PolicyCache.this.maxEntries) {
+                    return false;
+                }
+                unindex(eldest.getValue().record);
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    // ==========================================
+    // Read-Through Lookups
+    // ==========================================
+    // Cached records are shared between callers and must not be modified
+    public CustomerRecord getById(long id, Loader loader) throws SQLException {
+        CustomerRecord cached = lookup(id);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        return fill(loader.load());
+    }
+
+    public CustomerRecord getByPolicyNumber(String policyNumber, Loader loader) throws SQLException {
+        CustomerRecord cached;
+        synchronized (this) {
+            Long id = idsByPolicyNumber.get(policyNumber);
+            cached = id == null ? null : lookup(id);
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        return fill(loader.load());
+    }
+
+    private synchronized CustomerRecord lookup(long id) {
+        CacheEntry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= entry.expiresAt) {
+            entries.remove(id);
+            unindex(entry.record);
+            expirations.incrementAndGet();
+            return null;
+        }
+        return entry.record;
+    }
+
+    private CustomerRecord fill(CustomerRecord loaded) {
+        return loaded == null ? null : put(loaded);
+    }
+
+    // ==========================================
+    // Write-Through and Invalidation
+    // ==========================================
+    // Stores a copy, so later changes to the caller's record do not leak into the cache
+    public CustomerRecord put(CustomerRecord record) {
+        CustomerRecord copy = copyOf(record);
+        CacheEntry entry = new CacheEntry(copy, System.currentTimeMillis() + ttlMillis);
+        synchronized (this) {
+            CacheEntry previous = entries.put(copy.getId(), entry);
+            if (previous != null) {
+                unindex(previous.record);
+            }
+            if (copy.getPolicyNumber() != null) {
+                idsByPolicyNumber.put(copy.getPolicyNumber(), copy.getId());
+            }
+        }
+        return copy;
+    }
+
+    public synchronized void invalidate(long id) {
+        CacheEntry entry = entries.remove(id);
+        if (entry != null) {
+            unindex(entry.record);
+        }
+    }
+
+    // Applies to entries written from now on; a smaller limit evicts the least recently used at once
+    public synchronized void resize(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        Iterator<CacheEntry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            unindex(eldest.next().record);
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        idsByPolicyNumber.clear();
+    }
+
+    private void unindex(CustomerRecord record) {
+        if (record.getPolicyNumber() != null) {
+            idsByPolicyNumber.remove(record.getPolicyNumber(), record.getId());
+        }
+    }
+
+    private static CustomerRecord copyOf(CustomerRecord record) {
+        CustomerRecord copy = new CustomerRecord(record.getName(), record.getEmail(), record.getPhone(),
+            record.getAddress(), record.getPolicyType(), record.getPolicyNumber(),
+            record.getStartDate() == null ? null : new java.util.Date(record.getStartDate().getTime()),
+            record.getEndDate() == null ? null : new java.util.Date(record.getEndDate().getTime()));
+        copy.setId(record.getId());
+        return copy;
+    }
+
+    // ==========================================
+    // Metrics
+    // ==========================================
+    public synchronized int getSize() { return entries.size(); }
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public long getEvictionCount() { return evictions.get(); }
+    public long getExpirationCount() { return expirations.get(); }
+
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : h / (double) total;
+    }
+
+    public String getStatsSummary() {
+        return String.format("Cache: %d/%d entries, %d hits, %d misses (%.0f%% hit), %d evicted, %d expired",
+            getSize(), maxEntries, getHitCount(), getMissCount(), getHitRatio() * 100,
+            getEvictionCount(), getExpirationCount());
+    }
+}
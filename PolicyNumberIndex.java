@@ -0,0 +1,265 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class PolicyNumberIndex {
+    // ==========================================
+    // Index State
+    // ==========================================
+    // Policy numbers in the XX123456 format pack into an int (26 * 26 * 10^6
+    // values), so the exact index is an open-addressing int set. A Bloom filter
+    // in front answers most "not taken" checks without touching it. The rare
+    // numbers stored in another format are kept as strings.
+    private static final int EMPTY = -1;
+    private static final int BLOOM_HASHES = 5;
+    private static final int BLOOM_BITS_PER_ENTRY = 10;  // ~1% false positives
+    private static final int FETCH_SIZE = 5000;
+
+    private int[] slots = newSlots(1024);
+    private int size;
+    private final Set<String> otherNumbers = new HashSet<>();
+    private volatile Bloom bloom = new Bloom(1024);
+    private volatile boolean ready;
+
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong bloomRejections = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+    private long warmMillis;
+
+    // ==========================================
+    // Warm-Up
+    // ==========================================
+    public void warm(ConnectionPool connectionPool) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = connectionPool.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(
+                 "SELECT policy_number FROM customer_details WHERE policy_number IS NOT NULL")) {
+            pstmt.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    add(rs.getString(1));
+                }
+            }
+        }
+        warmMillis = (System.nanoTime() - start) / 1_000_000;
+        ready = true;
+        System.out.println("Policy number index warmed with " + getSize() + " numbers in " + warmMillis + " ms");
+    }
+
+    // Checks made before warm-up finishes cannot see existing rows
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Empty indexes are usable as-is, e.g. for duplicates within an import file
+    public void markReady() {
+        ready = true;
+    }
+
+    // ==========================================
+    // Lookups and Reservations
+    // ==========================================
+    public boolean contains(String policyNumber) {
+        checks.incrementAndGet();
+        int key = encode(policyNumber);
+        if (key != EMPTY && !bloom.mightContain(key)) {
+            bloomRejections.incrementAndGet();
+            return false;
+        }
+        synchronized (this) {
+            boolean found = key == EMPTY ? otherNumbers.contains(policyNumber) : indexOf(key) >= 0;
+            if (!found && key != EMPTY) {
+                falsePositives.incrementAndGet();
+            }
+            return found;
+        }
+    }
+
+    // Returns false when the number is already taken
+    public synchronized boolean add(String policyNumber) {
+        int key = encode(policyNumber);
+        if (key == EMPTY) {
+            return otherNumbers.add(policyNumber);
+        }
+        if (indexOf(key) >= 0) {
+            return false;
+        }
+        if ((size + 1) * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        insert(slots, key);
+        size++;
+        if (size > bloom.capacity) {
+            rebuildBloom(size * 2);
+        } else {
+            bloom.add(key);
+        }
+        return true;
+    }
+
+    // Frees a number reserved for a save that failed. The Bloom filter keeps
+    // the bits, which only costs an exact lookup on later checks.
+    public synchronized void remove(String policyNumber) {
+        int key = encode(policyNumber);
+        if (key == EMPTY) {
+            otherNumbers.remove(policyNumber);
+            return;
+        }
+        int slot = indexOf(key);
+        if (slot < 0) {
+            return;
+        }
+        // Re-insert the rest of the probe run so later lookups still find it
+        slots[slot] = EMPTY;
+        size--;
+        int mask = slots.length - 1;
+        for (int i = (slot + 1) & mask; slots[i] != EMPTY; i = (i + 1) & mask) {
+            int moved = slots[i];
+            slots[i] = EMPTY;
+            insert(slots, moved);
+        }
+    }
+
+    // ==========================================
+    // Open-Addressing Int Set
+    // ==========================================
+    private int indexOf(int key) {
+        int mask = slots.length - 1;
+        for (int i = mix(key) & mask; slots[i] != EMPTY; i = (i + 1) & mask) {
+            if (slots[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void insert(int[] table, int key) {
+        int mask = table.length - 1;
+        int i = mix(key) & mask;
+        while (table[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        table[i] = key;
+    }
+
+    private void rehash(int capacity) {
+        int[] table = newSlots(capacity);
+        for (int key : slots) {
+            if (key != EMPTY) {
+                insert(table, key);
+            }
+        }
+        slots = table;
+    }
+
+    private void rebuildBloom(int capacity) {
+        Bloom rebuilt = new Bloom(capacity);
+        for (int key : slots) {
+            if (key != EMPTY) {
+                rebuilt.add(key);
+            }
+        }
+        bloom = rebuilt;
+    }
+
+    private static int[] newSlots(int capacity) {
+        int[] table = new int[capacity];
+        java.util.Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    // Returns EMPTY for anything that is not two upper-case letters and six digits
+    static int encode(String policyNumber) {
+        if (policyNumber == null || policyNumber.length() != 8) {
+            return EMPTY;
+        }
+        char a = policyNumber.charAt(0);
+        char b = policyNumber.charAt(1);
+        if (a < 'A' || a > 'Z' || b < 'A' || b > 'Z') {
+            return EMPTY;
+        }
+        int digits = 0;
+        for (int i = 2; i < 8; i++) {
+            char c = policyNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return EMPTY;
+            }
+            digits = digits * 10 + (c - '0');
+        }
+        return ((a - 'A') * 26 + (b - 'A')) * 1_000_000 + digits;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // ==========================================
+    // Bloom Filter
+    // ==========================================
+    // Bits are set with CAS so contains() can read them without the index lock
+    private static class Bloom {
+        final int capacity;
+        final int bitCount;
+        final AtomicLongArray bits;
+
+        Bloom(int capacity) {
+            this.capacity = capacity;
+            this.bitCount = Math.max(64, capacity * BLOOM_BITS_PER_ENTRY);
+            this.bits = new AtomicLongArray((bitCount + 63) / 64);
+        }
+
+        void add(int key) {
+            long hash = hash64(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                long mask = 1L << bit;
+                int word = bit >>> 6;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(int key) {
+            long hash = hash64(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash64(int key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            h ^= h >>> 32;
+            h *= 0xBF58476D1CE4E5B9L;
+            return h ^ (h >>> 29);
+        }
+    }
+
+    // ==========================================
+    // Metrics
+    // ==========================================
+    public synchronized int getSize() { return size + otherNumbers.size(); }
+    public long getCheckCount() { return checks.get(); }
+    public long getBloomRejectionCount() { return bloomRejections.get(); }
+    public long getFalsePositiveCount() { return falsePositives.get(); }
+
+    public String getStatsSummary() {
+        return String.format("Policy numbers: %,d indexed (warmed in %d ms), %,d checks, %,d answered by Bloom filter, %,d false positives",
+            getSize(), warmMillis, getCheckCount(), getBloomRejectionCount(), getFalsePositiveCount());
+    }
+}
@@ -0,0 +1,298 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class PremiumEngine {
+    // ==========================================
+    // Rate Tables
+    // ==========================================
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    public static final long NO_RATE = -1;
+
+    // Replaced as a whole on every change, so quotes never see a half-updated set
+    private volatile Map<String, RateTable> rateTables = new LinkedHashMap<>();
+
+    public static PremiumEngine withDefaultRates() {
+        PremiumEngine engine = new PremiumEngine();
+        engine.register("Health Insurance", new TermRateTable(1_200_000, 1_500, 500, 100_000));
+        engine.register("Life Insurance", new TermRateTable(1_800_000, 2_000, 800, 150_000));
+        engine.register("Auto Insurance", new TermRateTable(900_000, 1_000, 300, 75_000));
+        engine.register("Home Insurance", new TermRateTable(600_000, 1_000, 500, 50_000));
+        engine.register("Business Insurance", new TermRateTable(2_500_000, 2_500, 500, 250_000));
+        return engine;
+    }
+
+    public synchronized void register(String policyType, RateTable rateTable) {
+        Map<String, RateTable> updated = new LinkedHashMap<>(rateTables);
+        updated.put(policyType, rateTable);
+        rateTables = updated;
+    }
+
+    public RateTable getRateTable(String policyType) {
+        return rateTables.get(policyType);
+    }
+
+    // ==========================================
+    // Single Quotes
+    // ==========================================
+    // Returns NO_RATE when the policy type has no rate table
+    public long quoteCents(String policyType, Date startDate, Date endDate) {
+        RateTable table = rateTables.get(policyType);
+        if (table == null || startDate == null || endDate == null) {
+            return NO_RATE;
+        }
+        return table.quoteCents(termDays(startDate.getTime(), endDate.getTime()));
+    }
+
+    public long quoteCents(CustomerRecord record) {
+        return quoteCents(record.getPolicyType(), record.getStartDate(), record.getEndDate());
+    }
+
+    // Whole days between the dates; rounding absorbs daylight saving shifts
+    static int termDays(long startMillis, long endMillis) {
+        return (int) Math.floorDiv(endMillis - startMillis + DAY_MILLIS / 2, DAY_MILLIS);
+    }
+
+    public static String format(long cents) {
+        return cents == NO_RATE ? "not available" : String.format("%,d.%02d", cents / 100, cents % 100);
+    }
+
+    // ==========================================
+    // Parallel Quoting
+    // ==========================================
+    // Quotes every row of the arrays in place: rows are split recursively until
+    // a slice is small enough, then priced with plain loops over primitives.
+    public static void quoteAll(RateTable[] tables, int[] tableIndex, int[] termDays, long[] premiums,
+                                int count, ForkJoinPool pool) {
+        pool.invoke(new QuoteTask(tables, tableIndex, termDays, premiums, 0, count));
+    }
+
+    private static class QuoteTask extends RecursiveAction {
+        private static final int THRESHOLD = 8192;
+
+        private final RateTable[] tables;
+        private final int[] tableIndex;
+        private final int[] termDays;
+        private final long[] premiums;
+        private final int from;
+        private final int to;
+
+        QuoteTask(RateTable[] tables, int[] tableIndex, int[] termDays, long[] premiums, int from, int to) {
+            this.tables = tables;
+            this.tableIndex = tableIndex;
+            this.termDays = termDays;
+            this.premiums = premiums;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    int table = tableIndex[i];
+                    premiums[i] = table < 0 ? NO_RATE : tables[table].quoteCents(termDays[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new QuoteTask(tables, tableIndex, termDays, premiums, from, mid),
+                new QuoteTask(tables, tableIndex, termDays, premiums, mid, to));
+        }
+    }
+
+    // ==========================================
+    // Book Re-Quote
+    // ==========================================
+    private static final String CREATE_QUOTES_SQL = "CREATE TABLE policy_quotes ("
+        + "customer_id NUMBER PRIMARY KEY, "
+        + "premium_cents NUMBER NOT NULL, "
+        + "quoted_at TIMESTAMP NOT NULL)";
+    private static final String BOOK_SQL = "SELECT id, policy_type, start_date, end_date FROM customer_details "
+        + "WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY";
+    private static final String SAVE_QUOTE_SQL = "MERGE INTO policy_quotes q "
+        + "USING (SELECT CAST(? AS NUMBER) AS customer_id, CAST(? AS NUMBER) AS premium_cents, "
+        + "CAST(? AS TIMESTAMP) AS quoted_at FROM dual) s "
+        + "ON (q.customer_id = s.customer_id) "
+        + "WHEN MATCHED THEN UPDATE SET q.premium_cents = s.premium_cents, q.quoted_at = s.quoted_at "
+        + "WHEN NOT MATCHED THEN INSERT (customer_id, premium_cents, quoted_at) "
+        + "VALUES (s.customer_id, s.premium_cents, s.quoted_at)";
+
+    public static class RequoteResult {
+        private final long quoted;
+        private final long unpriced;
+        private final long elapsedMillis;
+        private final long pricingMillis;
+
+        RequoteResult(long quoted, long unpriced, long elapsedMillis, long pricingMillis) {
+            this.quoted = quoted;
+            this.unpriced = unpriced;
+            this.elapsedMillis = elapsedMillis;
+            this.pricingMillis = pricingMillis;
+        }
+
+        public long getQuoted() { return quoted; }
+        public long getUnpriced() { return unpriced; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public long getPricingMillis() { return pricingMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("%,d policies quoted, %,d without a rate table, in %.1f s (%.1f s pricing)",
+                quoted, unpriced, elapsedMillis / 1000.0, pricingMillis / 1000.0);
+        }
+    }
+
+    // Streams the book by id in chunks; each chunk is priced in parallel and its
+    // quotes are written with batched MERGEs and committed together
+    public RequoteResult requoteBook(ConnectionPool connectionPool, int chunkSize, int batchSize, ForkJoinPool pool)
+            throws SQLException {
+        long start = System.nanoTime();
+        long pricingNanos = 0;
+        long quoted = 0;
+        long unpriced = 0;
+
+        // Every chunk is priced against the tables as they were when the run started
+        Map<String, RateTable> snapshot = rateTables;
+        Map<String, Integer> typeIndex = new LinkedHashMap<>();
+        RateTable[] tables = new RateTable[snapshot.size()];
+        for (Map.Entry<String, RateTable> entry : snapshot.entrySet()) {
+            tables[typeIndex.size()] = entry.getValue();
+            typeIndex.put(entry.getKey(), typeIndex.size());
+        }
+
+        long[] ids = new long[chunkSize];
+        int[] tableIndex = new int[chunkSize];
+        int[] termDays = new int[chunkSize];
+        long[] premiums = new long[chunkSize];
+
+        try (Connection connection = connectionPool.getConnection()) {
+            ensureQuotesTable(connection);
+            connection.setAutoCommit(false);
+            try (PreparedStatement select = connection.prepareStatement(BOOK_SQL);
+                 PreparedStatement save = connection.prepareStatement(SAVE_QUOTE_SQL)) {
+                long afterId = 0;
+                while (true) {
+                    select.setLong(1, afterId);
+                    select.setInt(2, chunkSize);
+                    select.setFetchSize(Math.min(chunkSize, 5000));
+                    int count = 0;
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            ids[count] = rs.getLong(1);
+                            Integer table = typeIndex.get(rs.getString(2));
+                            java.sql.Date startDate = rs.getDate(3);
+                            java.sql.Date endDate = rs.getDate(4);
+                            tableIndex[count] = table == null || startDate == null || endDate == null ? -1 : table;
+                            termDays[count] = tableIndex[count] < 0 ? 0 : termDays(startDate.getTime(), endDate.getTime());
+                            count++;
+                        }
+                    }
+                    if (count == 0) {
+                        break;
+                    }
+
+                    long pricingStart = System.nanoTime();
+                    quoteAll(tables, tableIndex, termDays, premiums, count, pool);
+                    pricingNanos += System.nanoTime() - pricingStart;
+
+                    Timestamp now = new Timestamp(System.currentTimeMillis());
+                    int pending = 0;
+                    for (int i = 0; i < count; i++) {
+                        if (premiums[i] == NO_RATE) {
+                            unpriced++;
+                            continue;
+                        }
+                        save.setLong(1, ids[i]);
+                        save.setLong(2, premiums[i]);
+                        save.setTimestamp(3, now);
+                        save.addBatch();
+                        quoted++;
+                        if (++pending == batchSize) {
+                            save.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        save.executeBatch();
+                    }
+                    connection.commit();
+
+                    afterId = ids[count - 1];
+                    System.out.printf("Re-quoted %,d policies (through id %d)%n", quoted + unpriced, afterId);
+                    if (count < chunkSize) {
+                        break;
+                    }
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+        return new RequoteResult(quoted, unpriced, (System.nanoTime() - start) / 1_000_000, pricingNanos / 1_000_000);
+    }
+
+    private static void ensureQuotesTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeQuery("SELECT 1 FROM policy_quotes WHERE 1 = 0").close();
+        } catch (SQLException missing) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute(CREATE_QUOTES_SQL);
+                System.out.println("Created table policy_quotes");
+            }
+        }
+    }
+
+    // ==========================================
+    // Command Line
+    // ==========================================
+    public static void main(String[] args) {
+        DatabaseConfig config;
+        try {
+            config = ConfigLoader.loadConfig();
+        } catch (ConfigException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        int chunkSize = 50_000;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--chunk-size": chunkSize = Integer.parseInt(args[++i]); break;
+                case "--threads": parallelism = Integer.parseInt(args[++i]); break;
+                default:
+                    System.err.println("Usage: java PremiumEngine [--chunk-size N] [--threads N]");
+                    System.exit(2);
+            }
+        }
+
+        ConnectionPool connectionPool = null;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            config.loadDriver();
+            connectionPool = new ConnectionPool(config);
+            try (Connection connection = connectionPool.getConnection()) {
+                DatabaseSchema.ensureSchema(connection);
+            }
+            RequoteResult result = withDefaultRates().requoteBook(connectionPool, chunkSize, config.getBatchSize(), pool);
+            System.out.println(result);
+        } catch (Exception e) {
+            System.err.println("Re-quote failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            pool.shutdown();
+            if (connectionPool != null) {
+                connectionPool.close();
+            }
+        }
+    }
+}
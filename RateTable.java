@@ -0,0 +1,6 @@
+public interface RateTable {
+    // Premium in the smallest currency unit for a policy running termDays days.
+    // Called from fork/join workers during a book re-quote, so it must be
+    // thread-safe and should not allocate.
+    long quoteCents(int termDays);
+}
@@ -0,0 +1,431 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RenewalScheduler implements AutoCloseable {
+    // ==========================================
+    // Statements
+    // ==========================================
+    // The scan walks customer_details in (end_date, id) order from a saved
+    // high-water mark up to today + window, so each run only reads rows whose
+    // end date entered the window since the last run. An index on
+    // (end_date, id) makes every page a bounded range scan.
+    private static final String CREATE_TASKS_SQL = "CREATE TABLE renewal_tasks ("
+        + "customer_id NUMBER NOT NULL, "
+        + "policy_number VARCHAR2(20), "
+        + "end_date DATE NOT NULL, "
+        + "status VARCHAR2(10) NOT NULL, "
+        + "created_at TIMESTAMP NOT NULL, "
+        + "processed_at TIMESTAMP, "
+        + "PRIMARY KEY (customer_id, end_date))";
+    private static final String CREATE_STATE_SQL = "CREATE TABLE renewal_state ("
+        + "name VARCHAR2(30) PRIMARY KEY, "
+        + "mark_end_date DATE NOT NULL, "
+        + "mark_id NUMBER NOT NULL)";
+    private static final String SCAN_SQL = "SELECT id, policy_number, end_date FROM customer_details "
+        + "WHERE (end_date > ? OR (end_date = ? AND id > ?)) AND end_date < ? "
+        + "ORDER BY end_date, id FETCH FIRST ? ROWS ONLY";
+    // Rows behind the mark that have no task: inserted after the scan passed their
+    // end date (importer, offline replay, a form entry already inside the window),
+    // or a lower ID from another client's block. Limited to end dates from today on.
+    private static final String CATCH_UP_SQL = "SELECT c.id, c.policy_number, c.end_date FROM customer_details c "
+        + "WHERE (c.end_date > ? OR (c.end_date = ? AND c.id > ?)) "
+        + "AND (c.end_date < ? OR (c.end_date = ? AND c.id <= ?)) "
+        + "AND NOT EXISTS (SELECT 1 FROM renewal_tasks t WHERE t.customer_id = c.id AND t.end_date = c.end_date) "
+        + "ORDER BY c.end_date, c.id FETCH FIRST ? ROWS ONLY";
+    private static final String INSERT_TASK_SQL = "MERGE INTO renewal_tasks t "
+        + "USING (SELECT CAST(? AS NUMBER) AS customer_id, CAST(? AS VARCHAR2(20)) AS policy_number, "
+        + "CAST(? AS DATE) AS end_date FROM dual) s "
+        + "ON (t.customer_id = s.customer_id AND t.end_date = s.end_date) "
+        + "WHEN NOT MATCHED THEN INSERT (customer_id, policy_number, end_date, status, created_at) "
+        + "VALUES (s.customer_id, s.policy_number, s.end_date, 'PENDING', ?)";
+    private static final String SELECT_MARK_SQL = "SELECT mark_end_date, mark_id FROM renewal_state WHERE name = ?";
+    private static final String SAVE_MARK_SQL = "MERGE INTO renewal_state r "
+        + "USING (SELECT CAST(? AS VARCHAR2(30)) AS name, CAST(? AS DATE) AS mark_end_date, "
+        + "CAST(? AS NUMBER) AS mark_id FROM dual) s "
+        + "ON (r.name = s.name) "
+        + "WHEN MATCHED THEN UPDATE SET r.mark_end_date = s.mark_end_date, r.mark_id = s.mark_id "
+        + "WHEN NOT MATCHED THEN INSERT (name, mark_end_date, mark_id) VALUES (s.name, s.mark_end_date, s.mark_id)";
+    private static final String PENDING_SQL = "SELECT customer_id, policy_number, end_date, created_at "
+        + "FROM renewal_tasks WHERE status = 'PENDING' ORDER BY end_date, customer_id FETCH FIRST ? ROWS ONLY";
+    private static final String COMPLETE_TASK_SQL = "UPDATE renewal_tasks SET status = 'DONE', processed_at = ? "
+        + "WHERE customer_id = ? AND end_date = ?";
+    private static final String BACKLOG_SQL = "SELECT COUNT(*), MIN(created_at) FROM renewal_tasks WHERE status = 'PENDING'";
+    private static final String MARK_NAME = "expiry-scan";
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    // ==========================================
+    // Renewal Tasks
+    // ==========================================
+    public static class RenewalTask {
+        private final long customerId;
+        private final String policyNumber;
+        private final java.util.Date endDate;
+        private final long createdAt;
+
+        RenewalTask(long customerId, String policyNumber, java.util.Date endDate, long createdAt) {
+            this.customerId = customerId;
+            this.policyNumber = policyNumber;
+            this.endDate = endDate;
+            this.createdAt = createdAt;
+        }
+
+        public long getCustomerId() { return customerId; }
+        public String getPolicyNumber() { return policyNumber; }
+        public java.util.Date getEndDate() { return endDate; }
+        public long getCreatedAt() { return createdAt; }
+    }
+
+    // Called once per task on the scheduler thread; throwing leaves the task pending
+    public interface RenewalHandler {
+        void renew(RenewalTask task) throws Exception;
+    }
+
+    // ==========================================
+    // Scheduler State
+    // ==========================================
+    private final ConnectionPool connectionPool;
+    private final int windowDays;
+    private final int batchSize;
+    private final long intervalMillis;
+    private final RenewalHandler handler;
+    private final ScheduledExecutorService scheduler;
+    private volatile Runnable runListener;
+    private boolean tablesReady;
+
+    // ==========================================
+    // Metrics
+    // ==========================================
+    private final AtomicLong runCount = new AtomicLong();
+    private final AtomicLong rowsScanned = new AtomicLong();
+    private final AtomicLong tasksCreated = new AtomicLong();
+    private final AtomicLong tasksCaughtUp = new AtomicLong();
+    private final AtomicLong tasksProcessed = new AtomicLong();
+    private final AtomicLong tasksFailed = new AtomicLong();
+    private volatile long lastRunMillis;
+    private volatile double lastRunTasksPerSecond;
+    private volatile long pendingTasks;
+    private volatile long oldestPendingAgeMillis;
+    private volatile String lastError;
+
+    public RenewalScheduler(ConnectionPool connectionPool, int windowDays, int batchSize,
+                            long intervalMillis, RenewalHandler handler) {
+        this.connectionPool = connectionPool;
+        this.windowDays = windowDays;
+        this.batchSize = Math.max(1, batchSize);
+        this.intervalMillis = intervalMillis;
+        this.handler = handler;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "renewal-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Invoked on the scheduler thread after every run
+    public void setRunListener(Runnable runListener) {
+        this.runListener = runListener;
+    }
+
+    public void start(long initialDelayMillis) {
+        scheduler.scheduleWithFixedDelay(this::runSafely, initialDelayMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void runSafely() {
+        try {
+            runOnce();
+            lastError = null;
+        } catch (Exception e) {
+            // A failed run keeps the previous high-water mark and is retried next interval
+            lastError = e.getMessage();
+            System.err.println("Renewal run failed: " + e.getMessage());
+        }
+        Runnable listener = runListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    // ==========================================
+    // Scheduled Run
+    // ==========================================
+    public void runOnce() throws SQLException {
+        long start = System.nanoTime();
+        long horizon = CustomerValidator.startOfToday() + (windowDays + 1L) * DAY_MILLIS;
+        long created;
+        long processed;
+        try (Connection connection = connectionPool.getConnection()) {
+            if (!tablesReady) {
+                ensureTable(connection, "renewal_tasks", CREATE_TASKS_SQL);
+                ensureTable(connection, "renewal_state", CREATE_STATE_SQL);
+                tablesReady = true;
+            }
+            connection.setAutoCommit(false);
+            created = catchUp(connection);
+            created += scan(connection, horizon);
+            processed = processPending(connection);
+            refreshBacklog(connection);
+        }
+        lastRunMillis = (System.nanoTime() - start) / 1_000_000;
+        lastRunTasksPerSecond = (created + processed) * 1000.0 / Math.max(1, lastRunMillis);
+        runCount.incrementAndGet();
+    }
+
+    // Turns every policy that entered the window into a pending task, one committed page at a time
+    private long scan(Connection connection, long horizon) throws SQLException {
+        long[] mark = loadMark(connection);
+        long created = 0;
+        try (PreparedStatement select = connection.prepareStatement(SCAN_SQL);
+             PreparedStatement insert = connection.prepareStatement(INSERT_TASK_SQL);
+             PreparedStatement saveMark = connection.prepareStatement(SAVE_MARK_SQL)) {
+            while (true) {
+                select.setDate(1, new java.sql.Date(mark[0]));
+                select.setDate(2, new java.sql.Date(mark[0]));
+                select.setLong(3, mark[1]);
+                select.setDate(4, new java.sql.Date(horizon));
+                select.setInt(5, batchSize);
+                select.setFetchSize(batchSize);
+
+                int rows = 0;
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        long id = rs.getLong(1);
+                        java.sql.Date endDate = rs.getDate(3);
+                        insert.setLong(1, id);
+                        insert.setString(2, rs.getString(2));
+                        insert.setDate(3, endDate);
+                        insert.setTimestamp(4, now);
+                        insert.addBatch();
+                        mark[0] = endDate.getTime();
+                        mark[1] = id;
+                        rows++;
+                    }
+                }
+                if (rows == 0) {
+                    break;
+                }
+                insert.executeBatch();
+                saveMark.setString(1, MARK_NAME);
+                saveMark.setDate(2, new java.sql.Date(mark[0]));
+                saveMark.setLong(3, mark[1]);
+                saveMark.executeUpdate();
+                // Tasks and the mark move together, so a crash never skips or repeats a page
+                connection.commit();
+                rowsScanned.addAndGet(rows);
+                tasksCreated.addAndGet(rows);
+                created += rows;
+                if (rows < batchSize) {
+                    break;
+                }
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+        return created;
+    }
+
+    // Walks [today, mark] for rows the forward scan can no longer reach. The NOT EXISTS
+    // keeps this to the stragglers, and the MERGE makes a race with another client harmless.
+    private long catchUp(Connection connection) throws SQLException {
+        long[] mark = loadMark(connection);
+        long[] cursor = {CustomerValidator.startOfToday() - DAY_MILLIS, Long.MAX_VALUE};
+        if (mark[0] <= cursor[0]) {
+            return 0;
+        }
+        long created = 0;
+        try (PreparedStatement select = connection.prepareStatement(CATCH_UP_SQL);
+             PreparedStatement insert = connection.prepareStatement(INSERT_TASK_SQL)) {
+            while (true) {
+                select.setDate(1, new java.sql.Date(cursor[0]));
+                select.setDate(2, new java.sql.Date(cursor[0]));
+                select.setLong(3, cursor[1]);
+                select.setDate(4, new java.sql.Date(mark[0]));
+                select.setDate(5, new java.sql.Date(mark[0]));
+                select.setLong(6, mark[1]);
+                select.setInt(7, batchSize);
+                select.setFetchSize(batchSize);
+
+                int rows = 0;
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        long id = rs.getLong(1);
+                        java.sql.Date endDate = rs.getDate(3);
+                        insert.setLong(1, id);
+                        insert.setString(2, rs.getString(2));
+                        insert.setDate(3, endDate);
+                        insert.setTimestamp(4, now);
+                        insert.addBatch();
+                        cursor[0] = endDate.getTime();
+                        cursor[1] = id;
+                        rows++;
+                    }
+                }
+                if (rows == 0) {
+                    break;
+                }
+                insert.executeBatch();
+                connection.commit();
+                rowsScanned.addAndGet(rows);
+                tasksCreated.addAndGet(rows);
+                tasksCaughtUp.addAndGet(rows);
+                created += rows;
+                if (rows < batchSize) {
+                    break;
+                }
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+        return created;
+    }
+
+    // The first run starts with policies ending today
+    private long[] loadMark(Connection connection) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(SELECT_MARK_SQL)) {
+            pstmt.setString(1, MARK_NAME);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new long[]{rs.getDate(1).getTime(), rs.getLong(2)};
+                }
+            }
+        }
+        return new long[]{CustomerValidator.startOfToday() - DAY_MILLIS, Long.MAX_VALUE};
+    }
+
+    private long processPending(Connection connection) throws SQLException {
+        long processed = 0;
+        while (true) {
+            List<RenewalTask> tasks = new ArrayList<>(batchSize);
+            try (PreparedStatement pstmt = connection.prepareStatement(PENDING_SQL)) {
+                pstmt.setInt(1, batchSize);
+                pstmt.setFetchSize(batchSize);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        tasks.add(new RenewalTask(rs.getLong(1), rs.getString(2), rs.getDate(3),
+                            rs.getTimestamp(4).getTime()));
+                    }
+                }
+            }
+            if (tasks.isEmpty()) {
+                return processed;
+            }
+
+            int done = 0;
+            try (PreparedStatement complete = connection.prepareStatement(COMPLETE_TASK_SQL)) {
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                for (RenewalTask task : tasks) {
+                    try {
+                        handler.renew(task);
+                    } catch (Exception e) {
+                        tasksFailed.incrementAndGet();
+                        System.err.println("Renewal of policy " + task.getPolicyNumber() + " failed: " + e.getMessage());
+                        continue;
+                    }
+                    complete.setTimestamp(1, now);
+                    complete.setLong(2, task.getCustomerId());
+                    complete.setDate(3, new java.sql.Date(task.getEndDate().getTime()));
+                    complete.addBatch();
+                    done++;
+                }
+                if (done > 0) {
+                    complete.executeBatch();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+            tasksProcessed.addAndGet(done);
+            processed += done;
+            // Tasks that keep failing stay pending for the next run instead of looping here
+            if (done < tasks.size() || tasks.size() < batchSize) {
+                return processed;
+            }
+        }
+    }
+
+    private void refreshBacklog(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(BACKLOG_SQL)) {
+            if (rs.next()) {
+                pendingTasks = rs.getLong(1);
+                Timestamp oldest = rs.getTimestamp(2);
+                oldestPendingAgeMillis = oldest == null ? 0 : System.currentTimeMillis() - oldest.getTime();
+            }
+        }
+    }
+
+    private static void ensureTable(Connection connection, String table, String createSql) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeQuery("SELECT 1 FROM " + table + " WHERE 1 = 0").close();
+        } catch (SQLException missing) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute(createSql);
+                System.out.println("Created table " + table);
+            }
+        }
+    }
+
+    // ==========================================
+    // Metrics
+    // ==========================================
+    public long getRunCount() { return runCount.get(); }
+    public long getRowsScanned() { return rowsScanned.get(); }
+    public long getTasksCreated() { return tasksCreated.get(); }
+    public long getTasksCaughtUp() { return tasksCaughtUp.get(); }
+    public long getTasksProcessed() { return tasksProcessed.get(); }
+    public long getTasksFailed() { return tasksFailed.get(); }
+    public long getPendingTasks() { return pendingTasks; }
+    public long getLastRunMillis() { return lastRunMillis; }
+    public double getLastRunTasksPerSecond() { return lastRunTasksPerSecond; }
+    public long getOldestPendingAgeMillis() { return oldestPendingAgeMillis; }
+    public String getLastError() { return lastError; }
+
+    // Short form for the header, next to the database status
+    public String getStatusLine() {
+        if (lastError != null) {
+            return "Renewals: error";
+        }
+        if (runCount.get() == 0) {
+            return "Renewals: waiting";
+        }
+        return String.format("Renewals: %d pending, %.0f/s, lag %d min",
+            pendingTasks, lastRunTasksPerSecond, oldestPendingAgeMillis / 60_000);
+    }
+
+    public String getStatsSummary() {
+        return String.format("Renewals (%d-day window): %d runs, last %d ms | %d scanned, %d created (%d caught up), "
+                + "%d processed, %d failed | %d pending, oldest %d s",
+            windowDays, getRunCount(), getLastRunMillis(), getRowsScanned(), getTasksCreated(), getTasksCaughtUp(),
+            getTasksProcessed(), getTasksFailed(), getPendingTasks(), getOldestPendingAgeMillis() / 1000);
+    }
+
+    // ==========================================
+    // Shutdown
+    // ==========================================
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import javax.imageio.ImageIO;
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import javax.swing.SwingUtilities;
+
+public final class ResourceManager {
+    // ==========================================
+    // Shared Images
+    // ==========================================
+    // One decode per file for the whole application, off the EDT. Every caller gets
+    // the same BufferedImage, so it must be treated as read-only.
+    private static final Map<String, CompletableFuture<BufferedImage>> IMAGES = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<Icon>> ICONS = new ConcurrentHashMap<>();
+    private static final Map<String, String> TIMINGS = new LinkedHashMap<>();
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+    private static final ExecutorService LOADER = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "resource-loader-" + THREAD_NUMBER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Empty means no on-disk cache
+    private static volatile String cacheDirectory = "";
+
+    private ResourceManager() {
+    }
+
+    public static void setCacheDirectory(String directory) {
+        cacheDirectory = directory == null ? "" : directory.trim();
+    }
+
+    // Starts decoding ahead of need, e.g. from main() while the look and feel loads
+    public static void preload(String... files) {
+        for (String file : files) {
+            image(file);
+        }
+    }
+
+    // Completes with the decoded image, or exceptionally if the file cannot be read
+    public static CompletableFuture<BufferedImage> image(String file) {
+        return IMAGES.computeIfAbsent(file, key -> CompletableFuture.supplyAsync(() -> load(key), LOADER));
+    }
+
+    // Runs on the EDT once the image is ready; never runs if it failed to load,
+    // because the failure has already been logged
+    public static void whenLoaded(String file, Consumer<BufferedImage> onEdt) {
+        image(file).thenAccept(image -> SwingUtilities.invokeLater(() -> onEdt.accept(image)));
+    }
+
+    // One ImageIcon per file, shared by every label that shows it
+    public static void icon(String file, Consumer<Icon> onEdt) {
+        ICONS.computeIfAbsent(file, key -> image(key).thenApply(ImageIcon::new))
+            .thenAccept(icon -> SwingUtilities.invokeLater(() -> onEdt.accept(icon)));
+    }
+
+    // ==========================================
+    // Decoding
+    // ==========================================
+    private static BufferedImage load(String file) {
+        long begin = System.nanoTime();
+        File source = new File(file);
+        try {
+            if (!source.isFile()) {
+                throw new IOException("file not found");
+            }
+            String from = "decoded";
+            BufferedImage image = readCache(source);
+            if (image != null) {
+                from = "disk cache";
+            } else {
+                image = ImageIO.read(source);
+                if (image == null) {
+                    throw new IOException("unsupported image format");
+                }
+                image = toIntRgb(image);
+                writeCache(source, image);
+            }
+            long end = System.nanoTime();
+            StartupTimings.record("load " + file, begin, end);
+            recordTiming(file, String.format("%dx%d %s in %d ms", image.getWidth(), image.getHeight(), from,
+                (end - begin) / 1_000_000));
+            return image;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error loading image " + file + ": " + e.getMessage());
+            recordTiming(file, "failed: " + e.getMessage());
+            throw new IllegalStateException("Could not load " + file, e);
+        }
+    }
+
+    // ImageIO gives JPEGs as 3-byte BGR, which every draw has to convert; converted
+    // once, a ScaledBackground rebuild is about twice as fast. It also gives the
+    // disk cache a plain int-per-pixel layout.
+    static BufferedImage toIntRgb(BufferedImage image) {
+        boolean alpha = image.getColorModel().hasAlpha();
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        if (image.getType() == type) {
+            return image;
+        }
+        BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), type);
+        Graphics2D g = converted.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return converted;
+    }
+
+    // ==========================================
+    // On-Disk Cache
+    // ==========================================
+    // Raw pixels behind a header naming the source's size and modification time, so a
+    // replaced image is decoded again. Worth it when decoding costs more than reading
+    // width * height * 4 bytes, i.e. for large images on local disks.
+    private static final int CACHE_MAGIC = 0x494d5331;  // "IMS1"
+    private static final int HEADER_BYTES = 4 + 8 + 8 + 4 + 4 + 4;
+
+    private static Path cacheFile(File source) {
+        String directory = cacheDirectory;
+        if (directory.isEmpty()) {
+            return null;
+        }
+        return new File(directory, source.getName() + ".pixels").toPath();
+    }
+
+    private static BufferedImage readCache(File source) {
+        Path path = cacheFile(source);
+        if (path == null || !Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header);
+            header.flip();
+            if (header.getInt() != CACHE_MAGIC || header.getLong() != source.length()
+                    || header.getLong() != source.lastModified()) {
+                return null;
+            }
+            int width = header.getInt();
+            int height = header.getInt();
+            int type = header.getInt();
+            if (channel.size() != HEADER_BYTES + 4L * width * height) {
+                return null;
+            }
+            BufferedImage image = new BufferedImage(width, height, type);
+            int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            ByteBuffer body = ByteBuffer.allocateDirect(pixels.length * 4);
+            readFully(channel, body);
+            body.flip();
+            body.asIntBuffer().get(pixels);
+            return image;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring image cache " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Written to a temporary file and moved into place, so a reader never sees half a file
+    private static void writeCache(File source, BufferedImage image) {
+        Path path = cacheFile(source);
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), source.getName(), ".tmp");
+            int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(HEADER_BYTES + pixels.length * 4);
+            buffer.putInt(CACHE_MAGIC).putLong(source.length()).putLong(source.lastModified())
+                .putInt(image.getWidth()).putInt(image.getHeight()).putInt(image.getType());
+            buffer.asIntBuffer().put(pixels);
+            buffer.position(buffer.limit());
+            buffer.flip();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not write image cache " + path + ": " + e.getMessage());
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("truncated");
+            }
+        }
+    }
+
+    // ==========================================
+    // Reporting
+    // ==========================================
+    private static synchronized void recordTiming(String file, String timing) {
+        TIMINGS.put(file, timing);
+    }
+
+    public static synchronized String summary() {
+        StringBuilder sb = new StringBuilder("Image loading:");
+        for (Map.Entry<String, String> entry : TIMINGS.entrySet()) {
+            sb.append(String.format("%n  %-20s %s", entry.getKey(), entry.getValue()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,86 @@
+import java.awt.AlphaComposite;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+public class ScaledBackground {
+    // ==========================================
+    // Cache State
+    // ==========================================
+    // The decoded JPEG is scaled once per size into an image in the screen's own
+    // format. Repaints then copy pixels instead of rescaling the full photo, which
+    // matters because a hover or a validation border repaints the panel behind it.
+    private final BufferedImage source;
+    private BufferedImage scaled;
+    private GraphicsConfiguration scaledFor;
+    private int rebuilds;
+
+    public ScaledBackground(BufferedImage source) {
+        this.source = ResourceManager.toIntRgb(source);
+    }
+
+    // ==========================================
+    // Painting
+    // ==========================================
+    // Fills the component's bounds; only the clipped part is actually copied
+    public void paint(Graphics g, Component component) {
+        int width = component.getWidth();
+        int height = component.getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        // On a scaled (HiDPI) screen build the cache at device resolution, so the
+        // final draw maps one cached pixel to one screen pixel
+        AffineTransform transform = ((Graphics2D) g).getTransform();
+        int deviceWidth = (int) Math.ceil(width * transform.getScaleX());
+        int deviceHeight = (int) Math.ceil(height * transform.getScaleY());
+        BufferedImage image = scaledTo(deviceWidth, deviceHeight, component.getGraphicsConfiguration());
+        if (deviceWidth == width && deviceHeight == height) {
+            g.drawImage(image, 0, 0, null);
+        } else {
+            g.drawImage(image, 0, 0, width, height, null);
+        }
+    }
+
+    // Rebuilt only when the size or the screen changes
+    BufferedImage scaledTo(int width, int height, GraphicsConfiguration gc) {
+        if (scaled != null && scaled.getWidth() == width && scaled.getHeight() == height && scaledFor == gc) {
+            return scaled;
+        }
+        boolean alpha = source.getColorModel().hasAlpha();
+        BufferedImage target = gc != null
+            ? gc.createCompatibleImage(width, height, alpha ? Transparency.TRANSLUCENT : Transparency.OPAQUE)
+            : new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        // Nearest neighbour, as before: the photos are close to screen size, and a
+        // smoother filter costs 10x as much, which shows while the window is dragged
+        copy(source, target, width, height);
+        if (scaled != null) {
+            scaled.flush();
+        }
+        scaled = target;
+        scaledFor = gc;
+        rebuilds++;
+        return scaled;
+    }
+
+    private static void copy(BufferedImage from, BufferedImage to, int width, int height) {
+        Graphics2D g = to.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(from, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // ==========================================
+    // Diagnostics
+    // ==========================================
+    public int getRebuilds() {
+        return rebuilds;
+    }
+}
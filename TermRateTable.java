@@ -0,0 +1,43 @@
+public class TermRateTable implements RateTable {
+    // ==========================================
+    // Rates
+    // ==========================================
+    // An annual base premium prorated by day. Terms under a year carry a loading
+    // and terms over a year a discount, both in basis points of the prorated premium.
+    // A year is 365 or 366 days, so annual policies in a leap year are not discounted.
+    private static final int BASIS_POINTS = 10_000;
+    private static final int DAYS_PER_YEAR = 365;
+    private static final int DAYS_PER_LEAP_YEAR = 366;
+
+    private final long annualCents;
+    private final int shortTermLoadingBp;
+    private final int longTermDiscountBp;
+    private final long minimumCents;
+
+    public TermRateTable(long annualCents, int shortTermLoadingBp, int longTermDiscountBp, long minimumCents) {
+        if (annualCents < 0 || minimumCents < 0) {
+            throw new IllegalArgumentException("Premiums cannot be negative");
+        }
+        this.annualCents = annualCents;
+        this.shortTermLoadingBp = shortTermLoadingBp;
+        this.longTermDiscountBp = longTermDiscountBp;
+        this.minimumCents = minimumCents;
+    }
+
+    @Override
+    public long quoteCents(int termDays) {
+        if (termDays <= 0) {
+            return minimumCents;
+        }
+        long prorated = (annualCents * termDays + DAYS_PER_YEAR / 2) / DAYS_PER_YEAR;
+        int adjustmentBp = termDays < DAYS_PER_YEAR ? shortTermLoadingBp
+            : termDays > DAYS_PER_LEAP_YEAR ? -longTermDiscountBp : 0;
+        long adjusted = (prorated * (BASIS_POINTS + adjustmentBp) + BASIS_POINTS / 2) / BASIS_POINTS;
+        return Math.max(minimumCents, adjusted);
+    }
+
+    public long getAnnualCents() { return annualCents; }
+    public int getShortTermLoadingBp() { return shortTermLoadingBp; }
+    public int getLongTermDiscountBp() { return longTermDiscountBp; }
+    public long getMinimumCents() { return minimumCents; }
+}
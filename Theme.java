@@ -0,0 +1,142 @@
+import java.awt.Color;
+import java.awt.Cursor;
+import java.awt.Font;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.swing.BorderFactory;
+import javax.swing.JComponent;
+import javax.swing.border.Border;
+
+public final class Theme {
+    // ==========================================
+    // Colors
+    // ==========================================
+    // Color, Font and the Swing borders used here are immutable, so one instance can
+    // be shared by every component; the screens no longer build their own copies
+    public static final Color TEXT = new Color(41, 41, 41);
+    public static final Color PRIMARY = new Color(41, 128, 185);
+    public static final Color PRIMARY_HOVER = new Color(52, 152, 219);
+    public static final Color BAR = new Color(41, 128, 185, 230);
+    public static final Color SUCCESS = new Color(46, 204, 113);
+    public static final Color SUCCESS_HOVER = new Color(39, 174, 96);
+    public static final Color DANGER = new Color(231, 76, 60);
+    public static final Color DIVIDER = new Color(200, 200, 200);
+    public static final Color FORM_BACKGROUND = new Color(255, 255, 255, 230);
+    public static final Color CLEARED = new Color(255, 255, 255, 200);
+
+    public static final Cursor HAND = Cursor.getPredefinedCursor(Cursor.HAND_CURSOR);
+
+    // ==========================================
+    // Fonts
+    // ==========================================
+    public static final String FAMILY = "Segoe UI";
+    private static final Map<String, Font> FONTS = new ConcurrentHashMap<>();
+
+    private Theme() {
+    }
+
+    public static Font font(int style, int size) {
+        return font(FAMILY, style, size);
+    }
+
+    // Looked up while building screens; event handlers should keep the instance
+    public static Font font(String family, int style, int size) {
+        return FONTS.computeIfAbsent(family + '-' + style + '-' + size, key -> new Font(family, style, size));
+    }
+
+    // ==========================================
+    // Borders
+    // ==========================================
+    public enum FieldState { NORMAL, FOCUSED, VALID, INVALID, CLEARED }
+
+    private static final Map<FieldState, Border> FIELD_BORDERS = new EnumMap<>(FieldState.class);
+
+    static {
+        FIELD_BORDERS.put(FieldState.NORMAL, fieldBorder(TEXT));
+        FIELD_BORDERS.put(FieldState.FOCUSED, fieldBorder(PRIMARY));
+        FIELD_BORDERS.put(FieldState.VALID, fieldBorder(SUCCESS));
+        FIELD_BORDERS.put(FieldState.INVALID, fieldBorder(DANGER));
+        FIELD_BORDERS.put(FieldState.CLEARED, fieldBorder(CLEARED));
+    }
+
+    public static final Border BAR_PADDING = BorderFactory.createEmptyBorder(10, 20, 10, 20);
+    public static final Border DIALOG_PADDING = BorderFactory.createEmptyBorder(20, 20, 20, 20);
+    public static final Border LOGIN_FORM_BORDER = BorderFactory.createCompoundBorder(
+        BorderFactory.createLineBorder(DIVIDER), BorderFactory.createEmptyBorder(20, 20, 20, 20));
+    public static final Border LOGIN_FIELD_BORDER = BorderFactory.createCompoundBorder(
+        BorderFactory.createLineBorder(DIVIDER), BorderFactory.createEmptyBorder(5, 10, 5, 10));
+
+    private static Border fieldBorder(Color color) {
+        return BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(color, 2),
+            BorderFactory.createEmptyBorder(8, 12, 8, 12));
+    }
+
+    // Setting the border a field already has is a no-op in Swing, so a keystroke
+    // that leaves a field valid neither allocates nor repaints
+    public static Border fieldBorder(FieldState state) {
+        return FIELD_BORDERS.get(state);
+    }
+
+    public static Border validationBorder(boolean valid) {
+        return FIELD_BORDERS.get(valid ? FieldState.VALID : FieldState.INVALID);
+    }
+
+    // ==========================================
+    // Shared Listeners
+    // ==========================================
+    // Hover and focus show the FOCUSED border; leaving (unless focused) and losing
+    // focus go back to NORMAL. One pair of listeners serves every form field.
+    private static final MouseAdapter FIELD_HOVER = new MouseAdapter() {
+        @Override
+        public void mouseEntered(MouseEvent e) {
+            ((JComponent) e.getComponent()).setBorder(fieldBorder(FieldState.FOCUSED));
+        }
+
+        @Override
+        public void mouseExited(MouseEvent e) {
+            if (!e.getComponent().hasFocus()) {
+                ((JComponent) e.getComponent()).setBorder(fieldBorder(FieldState.NORMAL));
+            }
+        }
+    };
+
+    private static final FocusAdapter FIELD_FOCUS = new FocusAdapter() {
+        @Override
+        public void focusGained(FocusEvent e) {
+            ((JComponent) e.getComponent()).setBorder(fieldBorder(FieldState.FOCUSED));
+        }
+
+        @Override
+        public void focusLost(FocusEvent e) {
+            ((JComponent) e.getComponent()).setBorder(fieldBorder(FieldState.NORMAL));
+        }
+    };
+
+    public static void installFieldHighlight(JComponent field) {
+        field.setBorder(fieldBorder(FieldState.NORMAL));
+        field.addMouseListener(FIELD_HOVER);
+        field.addFocusListener(FIELD_FOCUS);
+    }
+
+    // Swaps between two prepared backgrounds, for buttons
+    public static void installHoverBackground(JComponent component, Color normal, Color hover) {
+        component.setBackground(normal);
+        component.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseEntered(MouseEvent e) {
+                component.setBackground(hover);
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                component.setBackground(normal);
+            }
+        });
+    }
+}
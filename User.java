@@ -2,7 +2,7 @@ public class User {
     private String fullName;
     private String email;
     private String username;
-    private String password;
+    private String password; // PBKDF2 hash once registered, see PasswordHasher
 
     public User(String fullName, String email, String username, String password) {
         this.fullName = fullName;
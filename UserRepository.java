@@ -0,0 +1,20 @@
+import java.util.Collection;
+
+public interface UserRepository extends AutoCloseable {
+    // Every stored account, in the order it should be replayed into UserService
+    Collection<User> loadAll();
+
+    void save(User user);
+
+    // Stores many users with a single flush/commit
+    void saveAll(Collection<User> users);
+
+    // Moves stored data that loadAll could not read out of the way, keeping it for
+    // recovery, so the store can start again empty. Stores that cannot do this throw.
+    default void setAside() {
+        throw new UserStoreException(getClass().getSimpleName() + " cannot set its data aside", null);
+    }
+
+    @Override
+    void close();
+}
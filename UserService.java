@@ -1,49 +1,273 @@
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class UserService {
-    private static UserService instance;
-    private List<User> users;
+    private static final String DEFAULT_USER_LOG = "data/users.log";
+    private static final int VERIFY_QUEUE_CAPACITY = 64;
+
+    // Usernames index the accounts, so register and login cost the same no matter how many users exist
+    private final ConcurrentMap<String, User> usersByUsername;
+    private volatile UserRepository repository;
+    private final PasswordHasher hasher;
+    // Hashed on the verify pool as its first task, so construction never pays for PBKDF2
+    private final CompletableFuture<Void> hashesReady;
+    private volatile String dummyHash;
+
+    // Password checks are deliberately slow, so they run on a small bounded pool.
+    // When the queue is full new attempts are rejected instead of piling up.
+    private final ThreadPoolExecutor verifyPool;
 
     private UserService() {
-        users = new ArrayList<>();
-        // Add default user
-        users.add(new User("Aman", "aman@example.com", "Aman", "Aman123"));
+        // Add default user (kept in memory only)
+        this(new FileUserRepository(new File(DEFAULT_USER_LOG)),
+            new PasswordHasher(Integer.getInteger("ims.password.iterations", PasswordHasher.DEFAULT_ITERATIONS)),
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+            new User("Aman", "aman@example.com", "Aman", "Aman123"));
+    }
+
+    UserService(UserRepository repository, PasswordHasher hasher, int verifyThreads) {
+        this(repository, hasher, verifyThreads, null);
+    }
+
+    // seedUser holds a plain password; it is added unless the store already has that username
+    private UserService(UserRepository repository, PasswordHasher hasher, int verifyThreads, User seedUser) {
+        this.usersByUsername = new ConcurrentHashMap<>();
+        this.hasher = hasher;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        verifyPool = new ThreadPoolExecutor(verifyThreads, verifyThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(VERIFY_QUEUE_CAPACITY), r -> {
+                Thread thread = new Thread(r, "password-verify-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        // Submitted before anything else, so it is running by the time a login waits on it
+        hashesReady = CompletableFuture.runAsync(() -> {
+            dummyHash = hasher.hash("not-a-real-password");
+            if (seedUser != null) {
+                hashPassword(seedUser);
+                usersByUsername.putIfAbsent(seedUser.getUsername(), seedUser);
+            }
+        }, verifyPool);
+
+        setRepository(repository);
+    }
+
+    // Initialization-on-demand holder: the JVM guarantees a single, safely published instance
+    private static class Holder {
+        private static final UserService INSTANCE = new UserService();
     }
 
     public static UserService getInstance() {
-        if (instance == null) {
-            instance = new UserService();
+        return Holder.INSTANCE;
+    }
+
+    // Switches the backing store and replays its accounts into the index.
+    // Accounts already in memory stay available, so logins keep working during the switch.
+    // If the new store cannot be read, the current one is kept. With no current store
+    // (first call) its unreadable data is set aside and it starts empty, so sign-ups
+    // still work; if even that fails the UserStoreException is thrown.
+    public void setRepository(UserRepository newRepository) {
+        long start = System.nanoTime();
+        Collection<User> stored;
+        try {
+            stored = newRepository.loadAll();
+        } catch (UserStoreException e) {
+            if (repository != null) {
+                System.err.println("Error loading users, keeping the current user store: " + e.getMessage());
+                newRepository.close();
+                return;
+            }
+            System.err.println("Error loading users, starting an empty user store: " + e.getMessage());
+            newRepository.setAside();
+            stored = newRepository.loadAll();
+        }
+        for (User user : stored) {
+            usersByUsername.put(user.getUsername(), user);
+        }
+
+        UserRepository previous = repository;
+        repository = newRepository;
+        if (previous != null) {
+            previous.close();
         }
-        return instance;
+        System.out.println("Loaded " + stored.size() + " users from " + newRepository.getClass().getSimpleName()
+            + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
     }
 
+    // Hashes on the caller's thread; UI code should use registerUserAsync
     public boolean registerUser(User newUser) {
-        // Check if username already exists
-        for (User user : users) {
-            if (user.getUsername().equals(newUser.getUsername())) {
-                return false;
+        if (newUser == null || newUser.getUsername() == null) {
+            return false;
+        }
+        // Taken usernames are turned away before paying for the hash
+        if (usersByUsername.containsKey(newUser.getUsername())) {
+            return false;
+        }
+        hashPassword(newUser);
+        // Atomic check-and-insert, so two sign-ups for the same username can't both succeed
+        if (usersByUsername.putIfAbsent(newUser.getUsername(), newUser) != null) {
+            return false;
+        }
+        try {
+            repository.save(newUser);
+            return true;
+        } catch (UserStoreException e) {
+            System.err.println("Error saving user: " + e.getMessage());
+            usersByUsername.remove(newUser.getUsername(), newUser);
+            return false;
+        }
+    }
+
+    // Runs registerUser on the verify pool. Fails with RejectedExecutionException
+    // when too many logins and sign-ups are already waiting.
+    public CompletableFuture<Boolean> registerUserAsync(User newUser) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        try {
+            verifyPool.execute(() -> {
+                try {
+                    result.complete(registerUser(newUser));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new RejectedExecutionException("Too many sign-ups in progress", e));
+        }
+        return result;
+    }
+
+    // Bulk load: users become visible to logins as they are indexed and are
+    // persisted with a single write, so lookups never wait on the store.
+    public int registerUsers(Collection<User> newUsers) {
+        List<User> accepted = new ArrayList<>();
+        for (User user : newUsers) {
+            if (user == null || user.getUsername() == null || usersByUsername.containsKey(user.getUsername())) {
+                continue;
+            }
+            hashPassword(user);
+            if (usersByUsername.putIfAbsent(user.getUsername(), user) == null) {
+                accepted.add(user);
+            }
+        }
+        try {
+            repository.saveAll(accepted);
+        } catch (UserStoreException e) {
+            System.err.println("Error saving users: " + e.getMessage());
+            for (User user : accepted) {
+                usersByUsername.remove(user.getUsername(), user);
             }
+            return 0;
+        }
+        return accepted.size();
+    }
+
+    private void hashPassword(User user) {
+        if (user.getPassword() != null && !PasswordHasher.isHashed(user.getPassword())) {
+            user.setPassword(hasher.hash(user.getPassword()));
         }
-        users.add(newUser);
-        return true;
+    }
+
+    // ==========================================
+    // Login
+    // ==========================================
+    // Completes with the user, or null for bad credentials. Fails with
+    // RejectedExecutionException when too many logins are already waiting.
+    public CompletableFuture<User> loginUserAsync(String username, String password) {
+        CompletableFuture<User> result = new CompletableFuture<>();
+        if (username == null || password == null) {
+            result.complete(null);
+            return result;
+        }
+        // Timed from submission, so time spent queued for a verify thread counts too
+        long started = System.nanoTime();
+        try {
+            verifyPool.execute(() -> {
+                try {
+                    User user = verify(username, password);
+                    if (user != null) {
+                        Metrics.success(Metrics.Operation.LOGIN, started);
+                    } else {
+                        Metrics.failure(Metrics.Operation.LOGIN, started);
+                    }
+                    result.complete(user);
+                } catch (RuntimeException e) {
+                    Metrics.failure(Metrics.Operation.LOGIN, started);
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Metrics.failure(Metrics.Operation.LOGIN, started);
+            result.completeExceptionally(new RejectedExecutionException("Too many login attempts in progress", e));
+        }
+        return result;
     }
 
     public User loginUser(String username, String password) {
-        for (User user : users) {
-            if (user.getUsername().equals(username) && user.getPassword().equals(password)) {
-                return user;
-            }
+        try {
+            return loginUserAsync(username, password).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            System.err.println("Login failed: " + e.getCause().getMessage());
+            return null;
         }
-        return null;
     }
 
-    public boolean isUsernameExists(String username) {
-        for (User user : users) {
-            if (user.getUsername().equals(username)) {
-                return true;
+    private User verify(String username, String password) {
+        hashesReady.join();
+        User user = usersByUsername.get(username);
+        if (user == null) {
+            // Spend the same time as a real check so unknown usernames can't be told apart
+            hasher.verify(password, dummyHash);
+            return null;
+        }
+        if (!hasher.verify(password, user.getPassword())) {
+            return null;
+        }
+
+        if (hasher.needsRehash(user.getPassword())) {
+            // Upgrade plain or cheaper hashes now that we have the password in hand
+            User upgraded = new User(user.getFullName(), user.getEmail(), user.getUsername(), hasher.hash(password));
+            if (usersByUsername.replace(username, user, upgraded)) {
+                try {
+                    repository.save(upgraded);
+                } catch (UserStoreException e) {
+                    System.err.println("Error saving rehashed password: " + e.getMessage());
+                }
+                return upgraded;
             }
         }
-        return false;
+        return user;
+    }
+
+    public boolean isUsernameExists(String username) {
+        return username != null && usersByUsername.containsKey(username);
+    }
+
+    public int getUserCount() {
+        return usersByUsername.size();
+    }
+
+    public int getPendingLoginCount() {
+        return verifyPool.getQueue().size() + verifyPool.getActiveCount();
+    }
+
+    void shutdown() {
+        verifyPool.shutdownNow();
+        repository.close();
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
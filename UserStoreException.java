@@ -0,0 +1,5 @@
+public class UserStoreException extends RuntimeException {
+    public UserStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
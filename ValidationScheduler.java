@@ -0,0 +1,164 @@
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
+
+public class ValidationScheduler {
+    // ==========================================
+    // Field State
+    // ==========================================
+    // Everything here runs on the EDT except the slow rules. A burst of document
+    // events (typing, a paste, setText's remove-then-insert) only moves the field's
+    // deadline; the rules run once the field has been quiet for the delay.
+    //
+    // A slow rule may return null when it has nothing to add to the fast result.
+    public interface Rule {
+        CustomerValidator.ValidationResult check(String text) throws Exception;
+    }
+
+    private class Watched implements DocumentListener {
+        final JTextComponent field;
+        final Rule fastRule;
+        final Rule slowRule;
+        final Consumer<CustomerValidator.ValidationResult> apply;
+        long dueAt;
+        boolean pending;
+        // Bumped by every edit; a slow result for an older generation is stale
+        int generation;
+
+        Watched(JTextComponent field, Rule fastRule, Rule slowRule, Consumer<CustomerValidator.ValidationResult> apply) {
+            this.field = field;
+            this.fastRule = fastRule;
+            this.slowRule = slowRule;
+            this.apply = apply;
+        }
+
+        public void insertUpdate(DocumentEvent e) { edited(this); }
+        public void removeUpdate(DocumentEvent e) { edited(this); }
+        public void changedUpdate(DocumentEvent e) { edited(this); }
+    }
+
+    private final PersistenceExecutor slowExecutor;
+    private final Map<JTextComponent, Watched> fields = new IdentityHashMap<>();
+    private final Timer timer;
+    private volatile int delayMillis;
+
+    // ==========================================
+    // Statistics
+    // ==========================================
+    private long events;
+    private long fastChecks;
+    private long slowChecks;
+    private long staleResults;
+
+    // Slow rules run on slowExecutor; fast rules always run on the EDT
+    public ValidationScheduler(int delayMillis, PersistenceExecutor slowExecutor) {
+        this.delayMillis = delayMillis;
+        this.slowExecutor = slowExecutor;
+        // One timer for every field, re-armed for the earliest pending deadline
+        timer = new Timer(delayMillis, e -> runDue());
+        timer.setRepeats(false);
+    }
+
+    public void setDelayMillis(int delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    // fastRule runs first; slowRule (may be null) only runs when fastRule passed,
+    // and its result is applied only if the field has not been edited since
+    public void watch(JTextComponent field, Rule fastRule, Rule slowRule,
+                      Consumer<CustomerValidator.ValidationResult> apply) {
+        Watched watched = new Watched(field, fastRule, slowRule, apply);
+        fields.put(field, watched);
+        field.getDocument().addDocumentListener(watched);
+    }
+
+    // ==========================================
+    // Scheduling
+    // ==========================================
+    private void edited(Watched watched) {
+        events++;
+        watched.generation++;
+        watched.dueAt = System.nanoTime() + delayMillis * 1_000_000L;
+        watched.pending = true;
+        if (!timer.isRunning()) {
+            timer.setInitialDelay(delayMillis);
+            timer.restart();
+        }
+    }
+
+    private void runDue() {
+        long now = System.nanoTime();
+        long nextDue = Long.MAX_VALUE;
+        for (Watched watched : fields.values()) {
+            if (!watched.pending) {
+                continue;
+            }
+            if (watched.dueAt - now <= 0) {
+                run(watched);
+            } else {
+                nextDue = Math.min(nextDue, watched.dueAt);
+            }
+        }
+        if (nextDue != Long.MAX_VALUE) {
+            timer.setInitialDelay((int) Math.max(1, (nextDue - now + 999_999) / 1_000_000));
+            timer.restart();
+        }
+    }
+
+    private void run(Watched watched) {
+        watched.pending = false;
+        String text = watched.field.getText();
+        CustomerValidator.ValidationResult result;
+        try {
+            result = watched.fastRule.check(text);
+        } catch (Exception e) {
+            System.err.println("Validation failed: " + e.getMessage());
+            return;
+        }
+        fastChecks++;
+        watched.apply.accept(result);
+        if (!result.isValid() || watched.slowRule == null) {
+            return;
+        }
+
+        int generation = watched.generation;
+        slowChecks++;
+        slowExecutor.submit(() -> watched.slowRule.check(text))
+            .whenComplete((slowResult, error) -> SwingUtilities.invokeLater(() -> {
+                if (generation != watched.generation) {
+                    staleResults++;
+                } else if (error != null) {
+                    // The fast result stays; submit runs every check again anyway
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    System.err.println("Background validation failed: " + cause.getMessage());
+                } else if (slowResult != null) {
+                    watched.apply.accept(slowResult);
+                }
+            }));
+    }
+
+    // Drops anything pending for these fields, e.g. after the form is cleared, so a
+    // late check does not paint an error on an empty field
+    public void cancel(JTextComponent... toCancel) {
+        for (JTextComponent field : toCancel) {
+            Watched watched = fields.get(field);
+            if (watched != null) {
+                watched.pending = false;
+                watched.generation++;
+            }
+        }
+    }
+
+    // ==========================================
+    // Reporting
+    // ==========================================
+    public String getStatsSummary() {
+        return String.format("Live validation: %d edits -> %d checks (%d in background, %d stale dropped), %d ms debounce",
+            events, fastChecks, slowChecks, staleResults, delayMillis);
+    }
+}
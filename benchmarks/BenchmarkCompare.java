@@ -0,0 +1,86 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compares two JMH result files (-rf json) and flags every benchmark that got
+// slower by more than the threshold. Exits with status 1 when anything regressed,
+// so a release build can fail on it.
+//
+//   javac -d out Json.java benchmarks/BenchmarkCompare.java
+//   java -cp out BenchmarkCompare benchmarks/results/1.0.json benchmarks/results/1.1.json [threshold %]
+public class BenchmarkCompare {
+    private static class Score {
+        final String mode;
+        final double value;
+        final String unit;
+
+        Score(String mode, double value, String unit) {
+            this.mode = mode;
+            this.value = value;
+            this.unit = unit;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java BenchmarkCompare <baseline.json> <current.json> [threshold %]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Score> baseline = load(args[0]);
+        Map<String, Score> current = load(args[1]);
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null || !before.unit.equals(now.unit)) {
+                System.out.printf("%-70s %14s %14.3f %9s%n", entry.getKey(), "-", now.value, "new");
+                continue;
+            }
+            double change = (now.value - before.value) / before.value * 100;
+            // Throughput should go up; every other mode reports time, which should go down
+            double slowdown = "thrpt".equals(now.mode) ? -change : change;
+            boolean regressed = slowdown > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), before.value, now.value, change,
+                regressed ? "  REGRESSION" : "");
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("%-70s %14.3f %14s %9s%n", key, baseline.get(key).value, "-", "removed");
+            }
+        }
+
+        System.out.printf("%n%d regression(s) beyond %.1f%%%n", regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    // Keyed by benchmark name plus parameters, e.g. InsertBenchmark.batchedInserts{batchSize=500, storage=mem}
+    @SuppressWarnings("unchecked")
+    private static Map<String, Score> load(String file) throws IOException {
+        String text = new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (Object item : (List<Object>) Json.parse(text)) {
+            Map<String, Object> result = (Map<String, Object>) item;
+            Map<String, Object> metric = (Map<String, Object>) result.get("primaryMetric");
+            if (!(metric.get("score") instanceof Number)) {
+                continue;
+            }
+            String name = (String) result.get("benchmark");
+            name = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+            Object params = result.get("params");
+            String key = params == null ? name : name + params;
+            scores.put(key, new Score((String) result.get("mode"),
+                ((Number) metric.get("score")).doubleValue(), (String) metric.get("scoreUnit")));
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,88 @@
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+// Quotes per second for a synthetic book, priced in a plain loop and with the
+// fork/join split used by PremiumEngine.requoteBook. No database is needed.
+//
+//   javac -d out *.java benchmarks/PremiumBenchmark.java
+//   java -cp out PremiumBenchmark [policies] [rounds]
+public class PremiumBenchmark {
+    public static void main(String[] args) {
+        int policies = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        PremiumEngine engine = PremiumEngine.withDefaultRates();
+        String[] types = {"Health Insurance", "Life Insurance", "Auto Insurance", "Home Insurance", "Business Insurance"};
+        RateTable[] tables = new RateTable[types.length];
+        for (int i = 0; i < types.length; i++) {
+            tables[i] = engine.getRateTable(types[i]);
+        }
+
+        Random random = new Random(42);
+        int[] tableIndex = new int[policies];
+        int[] termDays = new int[policies];
+        long[] premiums = new long[policies];
+        for (int i = 0; i < policies; i++) {
+            tableIndex[i] = random.nextInt(tables.length);
+            termDays[i] = 30 + random.nextInt(5 * 365);
+        }
+
+        System.out.printf("%,d policies, %d rounds%n%n", policies, rounds);
+        System.out.printf("%-12s %8s %16s %14s%n", "mode", "threads", "quotes/s", "bytes/quote");
+
+        // A plain loop on this thread shows the per-quote cost and allocation
+        for (int round = -1; round < rounds; round++) {
+            if (round == 0) {
+                start();
+            }
+            for (int i = 0; i < policies; i++) {
+                premiums[i] = tables[tableIndex[i]].quoteCents(termDays[i]);
+            }
+        }
+        finish("loop", 1, policies, rounds);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        int[] parallelism = cores == 1 ? new int[]{1} : new int[]{1, cores};
+        for (int threads : parallelism) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            PremiumEngine.quoteAll(tables, tableIndex, termDays, premiums, policies, pool);  // warm-up
+            start();
+            for (int round = 0; round < rounds; round++) {
+                PremiumEngine.quoteAll(tables, tableIndex, termDays, premiums, policies, pool);
+            }
+            // Allocation is only measured for the calling thread, so it is not shown here
+            finishWithoutAllocation("fork/join", threads, policies, rounds);
+            pool.shutdown();
+        }
+    }
+
+    private static long startNanos;
+    private static long startBytes;
+
+    private static void start() {
+        startBytes = allocatedBytes();
+        startNanos = System.nanoTime();
+    }
+
+    private static void finish(String mode, int threads, int policies, int rounds) {
+        long elapsed = System.nanoTime() - startNanos;
+        long bytes = allocatedBytes() - startBytes;
+        System.out.printf("%-12s %8d %16.0f %14.3f%n", mode, threads,
+            (double) policies * rounds / (elapsed / 1_000_000_000.0), bytes / ((double) policies * rounds));
+    }
+
+    private static void finishWithoutAllocation(String mode, int threads, int policies, int rounds) {
+        long elapsed = System.nanoTime() - startNanos;
+        System.out.printf("%-12s %8d %16.0f %14s%n", mode, threads,
+            (double) policies * rounds / (elapsed / 1_000_000_000.0), "-");
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,101 @@
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import javax.imageio.ImageIO;
+import javax.swing.JPanel;
+
+// Frame time for painting the main and login backgrounds the way Swing does on a
+// repaint: the region behind a hovered button or an edited text field, and the whole
+// panel. Compares scaling the photo on every paint with ScaledBackground's cache.
+// Frames are drawn in software into an INT_RGB image, so it runs headless and times
+// the pixel work rather than a GPU queue.
+//
+//   javac -d out *.java benchmarks/RepaintBenchmark.java
+//   java -cp out RepaintBenchmark [seconds per case] [width] [height]
+public class RepaintBenchmark {
+    private interface Painter {
+        void paint(Graphics2D g);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : 1920;
+        int height = args.length > 2 ? Integer.parseInt(args[2]) : 1080;
+
+        JPanel panel = new JPanel();
+        panel.setSize(width, height);
+        BufferedImage frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+        // Roughly where the login button and a form field sit on a full-screen window
+        Rectangle hover = new Rectangle(width / 2 - 75, height / 2 + 120, 150, 40);
+        Rectangle typing = new Rectangle(width / 2 - 140, height / 2 - 20, 280, 30);
+        Rectangle full = new Rectangle(0, 0, width, height);
+
+        System.out.printf("%dx%d, %d s per case%n%n", width, height, seconds);
+        System.out.printf("%-10s %-8s %-8s %12s %12s %10s%n", "image", "region", "paint", "mean ms", "p95 ms", "frames/s");
+        for (String file : new String[]{"main.jpg", "login.jpg"}) {
+            if (!new File(file).isFile()) {
+                System.out.printf("%-10s not found; run from the project root%n", file);
+                continue;
+            }
+            // The previous paint drew the image exactly as ImageIO decoded it
+            BufferedImage source = ImageIO.read(new File(file));
+            ScaledBackground background = new ScaledBackground(source);
+            Painter perPaint = g -> g.drawImage(source, 0, 0, width, height, null);
+            Painter cached = g -> background.paint(g, panel);
+
+            for (Object[] region : new Object[][]{{"hover", hover}, {"typing", typing}, {"full", full}}) {
+                report(file, (String) region[0], "rescale", perPaint, frame, (Rectangle) region[1], seconds);
+                report(file, (String) region[0], "cached", cached, frame, (Rectangle) region[1], seconds);
+            }
+            // Every frame a new size, as while the window is dragged: the cache is rebuilt each time
+            int[] toggle = {0};
+            Painter resizing = g -> {
+                panel.setSize(width - (toggle[0]++ & 1), height);
+                background.paint(g, panel);
+            };
+            report(file, "resize", "cached", resizing, frame, full, seconds);
+            panel.setSize(width, height);
+            System.out.printf("%-10s cache rebuilt %d times%n", file, background.getRebuilds());
+        }
+    }
+
+    private static void report(String file, String region, String name, Painter painter, BufferedImage frame,
+                               Rectangle clip, int seconds) {
+        run(painter, frame, clip, 1);  // warm-up
+        double[] millis = run(painter, frame, clip, seconds);
+        double sum = 0;
+        for (double m : millis) {
+            sum += m;
+        }
+        double mean = sum / millis.length;
+        Arrays.sort(millis);
+        double p95 = millis[(int) Math.min(millis.length - 1, Math.ceil(millis.length * 0.95) - 1)];
+        System.out.printf("%-10s %-8s %-8s %12.3f %12.3f %10.0f%n", file, region, name, mean, p95, 1000 / mean);
+    }
+
+    // Returns the time of every frame painted, in milliseconds
+    private static double[] run(Painter painter, BufferedImage frame, Rectangle clip, int seconds) {
+        double[] millis = new double[1024];
+        int count = 0;
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            Graphics2D g = frame.createGraphics();
+            try {
+                g.clip(clip);
+                painter.paint(g);
+            } finally {
+                g.dispose();
+            }
+            if (count == millis.length) {
+                millis = Arrays.copyOf(millis, count * 2);
+            }
+            millis[count++] = (System.nanoTime() - start) / 1e6;
+        }
+        return Arrays.copyOf(millis, count);
+    }
+}
@@ -0,0 +1,111 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.lang.management.ManagementFactory;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.border.Border;
+
+// Bytes allocated and time per UI event for the styling the form did before
+// Theme (new Font, Color and compound border objects in every handler) against
+// the shared Theme instances. Runs on the EDT like the real handlers. What is
+// left after Theme is Swing's own PropertyChangeEvent when a value really
+// changes. Allocation figures need a HotSpot JVM.
+//
+//   javac -d out *.java benchmarks/StyleAllocationBenchmark.java
+//   java -Djava.awt.headless=true -cp out StyleAllocationBenchmark [seconds per case]
+public class StyleAllocationBenchmark {
+    private interface Event {
+        void fire(long i);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        SwingUtilities.invokeAndWait(() -> runAll(seconds));
+    }
+
+    private static void runAll(int seconds) {
+        JTextField field = new JTextField(25);
+        field.setSize(300, 40);
+        JButton button = new JButton("Submit");
+        button.setSize(150, 45);
+        Color color = Theme.PRIMARY;
+        Color hover = color.darker();
+
+        System.out.printf("%d s per case, on the EDT%n%n", seconds);
+        System.out.printf("%-26s %-8s %12s %14s%n", "event", "styling", "ns/event", "bytes/event");
+
+        // A keystroke while the field stays valid: the handler re-applies the same state
+        report("keystroke, state kept", "before", i -> field.setBorder(legacyBorder(new Color(46, 204, 113))), seconds);
+        report("keystroke, state kept", "theme", i -> field.setBorder(Theme.validationBorder(true)), seconds);
+
+        // A keystroke that flips the field between valid and invalid
+        report("keystroke, state flips", "before", i -> field.setBorder(legacyBorder((i & 1) == 0
+            ? new Color(46, 204, 113) : new Color(231, 76, 60))), seconds);
+        report("keystroke, state flips", "theme", i -> field.setBorder(Theme.validationBorder((i & 1) == 0)), seconds);
+
+        // Mouse entering and leaving a form field
+        report("field hover", "before", i -> field.setBorder(legacyBorder((i & 1) == 0
+            ? new Color(41, 128, 185) : new Color(41, 41, 41))), seconds);
+        report("field hover", "theme", i -> field.setBorder(Theme.fieldBorder((i & 1) == 0
+            ? Theme.FieldState.FOCUSED : Theme.FieldState.NORMAL)), seconds);
+
+        // Mouse entering and leaving a styled button
+        report("button hover", "before", i -> button.setBackground((i & 1) == 0 ? color.darker() : color), seconds);
+        report("button hover", "theme", i -> button.setBackground((i & 1) == 0 ? hover : color), seconds);
+
+        // Styling one form field while the screen is built
+        report("style a field", "before", i -> {
+            field.setFont(new Font("Segoe UI", Font.PLAIN, 16));
+            field.setForeground(new Color(41, 41, 41));
+            field.setCaretColor(new Color(41, 128, 185));
+            field.setBorder(legacyBorder(new Color(41, 41, 41)));
+        }, seconds);
+        report("style a field", "theme", i -> {
+            field.setFont(Theme.font(Font.PLAIN, 16));
+            field.setForeground(Theme.TEXT);
+            field.setCaretColor(Theme.PRIMARY);
+            field.setBorder(Theme.fieldBorder(Theme.FieldState.NORMAL));
+        }, seconds);
+    }
+
+    private static Border legacyBorder(Color color) {
+        return BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(color, 2),
+            BorderFactory.createEmptyBorder(8, 12, 8, 12));
+    }
+
+    private static void report(String event, String styling, Event handler, int seconds) {
+        run(handler, 1);  // warm-up
+        double[] result = run(handler, seconds);
+        String bytes = result[1] < 0 ? "n/a" : String.format("%.1f", result[1]);
+        System.out.printf("%-26s %-8s %12.1f %14s%n", event, styling, result[0], bytes);
+    }
+
+    // Returns {nanos per event, bytes allocated per event or -1 when unsupported}
+    private static double[] run(Event handler, int seconds) {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long count = 0;
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 1024; i++) {
+                handler.fire(count + i);
+            }
+            count += 1024;
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytesAfter = allocatedBytes();
+        double bytes = bytesBefore < 0 ? -1 : (bytesAfter - bytesBefore) / (double) count;
+        return new double[]{elapsed / (double) count, bytes};
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
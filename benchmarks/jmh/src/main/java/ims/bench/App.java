@@ -0,0 +1,174 @@
+package ims.bench;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Calendar;
+import java.util.Date;
+
+// The application classes live in the default package, which a named package
+// cannot import, and JMH refuses benchmarks in the default package. The
+// benchmarks therefore reach the application through handles resolved once here.
+final class App {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    // ==========================================
+    // Application Classes
+    // ==========================================
+    static final Class<?> USER = type("User");
+    static final Class<?> USER_REPOSITORY = type("UserRepository");
+    static final Class<?> USER_SERVICE = type("UserService");
+    static final Class<?> PASSWORD_HASHER = type("PasswordHasher");
+    static final Class<?> CUSTOMER_RECORD = type("CustomerRecord");
+    static final Class<?> CUSTOMER_VALIDATOR = type("CustomerValidator");
+    static final Class<?> CUSTOMER_ID_ALLOCATOR = type("CustomerIdAllocator");
+    static final Class<?> CUSTOMER_BATCH_WRITER = type("CustomerBatchWriter");
+    static final Class<?> DATABASE_SCHEMA = type("DatabaseSchema");
+
+    private App() {
+    }
+
+    static Class<?> type(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("ims-core is not on the classpath: " + name, e);
+        }
+    }
+
+    // Package-private members are opened too, so the benchmarks can use the same
+    // test seams (UserService's repository constructor, the shared insert statement)
+    static MethodHandle constructor(Class<?> owner, Class<?>... parameterTypes) {
+        try {
+            Constructor<?> constructor = owner.getDeclaredConstructor(parameterTypes);
+            constructor.setAccessible(true);
+            return LOOKUP.unreflectConstructor(constructor);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Missing constructor on " + owner.getName(), e);
+        }
+    }
+
+    static MethodHandle method(Class<?> owner, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = owner.getDeclaredMethod(name, parameterTypes);
+            method.setAccessible(true);
+            return LOOKUP.unreflect(method);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Missing method " + owner.getName() + "." + name, e);
+        }
+    }
+
+    static Object staticField(Class<?> owner, String name) {
+        try {
+            Field field = owner.getDeclaredField(name);
+            field.setAccessible(true);
+            return field.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Missing field " + owner.getName() + "." + name, e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object enumConstant(String className, String name) {
+        return Enum.valueOf((Class) type(className), name);
+    }
+
+    static Object proxy(Class<?> iface, InvocationHandler handler) {
+        return Proxy.newProxyInstance(iface.getClassLoader(), new Class<?>[] { iface }, handler);
+    }
+
+    // Handles throw Throwable; benchmarks only ever see checked SQL failures or bugs
+    static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalStateException(t);
+    }
+
+    // ==========================================
+    // Test Data
+    // ==========================================
+    private static final MethodHandle NEW_CUSTOMER_RECORD = constructor(CUSTOMER_RECORD,
+        String.class, String.class, String.class, String.class, String.class, String.class, Date.class, Date.class);
+    private static final String[] POLICY_TYPES = { "Health", "Life", "Auto", "Home", "Business" };
+
+    // Policy numbers follow the XX123456 format and stay unique for 676 million rows
+    static String policyNumber(long n) {
+        long letters = (n / 1_000_000) % (26 * 26);
+        char first = (char) ('A' + letters / 26);
+        char second = (char) ('A' + letters % 26);
+        return String.format("%c%c%06d", first, second, n % 1_000_000);
+    }
+
+    static Object customerRecord(long n, boolean valid) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.DAY_OF_MONTH, 1 + (int) (n % 30));
+        Date start = calendar.getTime();
+        calendar.add(Calendar.YEAR, 1);
+        Date end = calendar.getTime();
+        try {
+            if (valid) {
+                return NEW_CUSTOMER_RECORD.invoke("Customer " + (char) ('A' + n % 26), "customer" + n + "@example.com",
+                    String.format("%010d", 5_550_000_000L + n % 1_000_000), n + " Main Street",
+                    POLICY_TYPES[(int) (n % POLICY_TYPES.length)], policyNumber(n), start, end);
+            }
+            // Every check but the start date fails, so the error path is measured in full
+            return NEW_CUSTOMER_RECORD.invoke("C3", "not-an-email", "555-01", "St", "",
+                "ab12", end, start);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    // ==========================================
+    // Embedded Database
+    // ==========================================
+    private static final MethodHandle ENSURE_SCHEMA = method(DATABASE_SCHEMA, "ensureSchema", Connection.class);
+
+    // "mem" keeps everything in the heap; "file" pays for the log writes a real commit costs
+    static Connection openDatabase(String storage) throws Exception {
+        String url;
+        if ("mem".equals(storage)) {
+            url = "jdbc:h2:mem:ims-bench-" + System.nanoTime() + ";MODE=Oracle";
+        } else if ("file".equals(storage)) {
+            File dir = Files.createTempDirectory("ims-bench").toFile();
+            dir.deleteOnExit();
+            url = "jdbc:h2:file:" + new File(dir, "ims").getAbsolutePath() + ";MODE=Oracle";
+        } else {
+            throw new IllegalArgumentException("Unknown storage " + storage);
+        }
+        Connection connection = DriverManager.getConnection(url, "sa", "");
+        try {
+            ENSURE_SCHEMA.invoke(connection);
+        } catch (Throwable t) {
+            connection.close();
+            throw rethrow(t);
+        }
+        return connection;
+    }
+
+    // Drops the database and, for file storage, deletes its files
+    static void closeDatabase(Connection connection) throws SQLException {
+        if (connection == null) {
+            return;
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS DELETE FILES");
+        } finally {
+            connection.close();
+        }
+    }
+}
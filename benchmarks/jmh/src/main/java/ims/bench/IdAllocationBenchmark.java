@@ -0,0 +1,53 @@
+package ims.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// CustomerIdAllocator against the embedded database. A block size of 1 makes
+// every ID a sequence round trip, which is what the allocator was added to avoid.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdAllocationBenchmark {
+    private static final MethodHandle NEW_ALLOCATOR = App.constructor(App.CUSTOMER_ID_ALLOCATOR, int.class);
+    private static final MethodHandle NEXT_ID = App.method(App.CUSTOMER_ID_ALLOCATOR, "nextId", Connection.class);
+
+    @Param({"1", "50", "1000"})
+    public int blockSize;
+
+    private Connection connection;
+    private Object allocator;
+
+    // A fresh database per trial, since the sequence increment is fixed to the block size
+    @Setup
+    public void setUp() throws Throwable {
+        connection = App.openDatabase("mem");
+        allocator = NEW_ALLOCATOR.invoke(blockSize);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        App.closeDatabase(connection);
+    }
+
+    @Benchmark
+    public long nextId() throws Throwable {
+        return (long) NEXT_ID.invoke(allocator, connection);
+    }
+}
@@ -0,0 +1,103 @@
+package ims.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Time per customer row for one INSERT and commit per row, as the form saves,
+// against CustomerBatchWriter as the importer uses it. Both share the insert
+// statement and ID allocator, so the difference is batching and commits alone.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+    private static final int ROWS = 1000;
+    private static final int ID_BLOCK_SIZE = 1000;
+
+    private static final String INSERT_SQL = (String) App.staticField(App.CUSTOMER_BATCH_WRITER, "INSERT_SQL");
+    private static final MethodHandle BIND_INSERT = App.method(App.CUSTOMER_BATCH_WRITER, "bindInsert",
+        PreparedStatement.class, App.CUSTOMER_RECORD);
+    private static final MethodHandle SET_ID = App.method(App.CUSTOMER_RECORD, "setId", long.class);
+    private static final MethodHandle NEW_ALLOCATOR = App.constructor(App.CUSTOMER_ID_ALLOCATOR, int.class);
+    private static final MethodHandle NEXT_ID = App.method(App.CUSTOMER_ID_ALLOCATOR, "nextId", Connection.class);
+    private static final MethodHandle NEW_WRITER = App.constructor(App.CUSTOMER_BATCH_WRITER,
+        Connection.class, App.CUSTOMER_ID_ALLOCATOR, int.class, int.class);
+    private static final MethodHandle ADD = App.method(App.CUSTOMER_BATCH_WRITER, "add", App.CUSTOMER_RECORD);
+    private static final MethodHandle CLOSE_WRITER = App.method(App.CUSTOMER_BATCH_WRITER, "close");
+
+    @Param({"mem", "file"})
+    public String storage;
+
+    @Param({"500"})
+    public int batchSize;
+
+    private Connection connection;
+    private Object allocator;
+    private long nextRow;
+
+    @Setup
+    public void setUp() throws Throwable {
+        connection = App.openDatabase(storage);
+        allocator = NEW_ALLOCATOR.invoke(ID_BLOCK_SIZE);
+    }
+
+    // Keeps the table (and its unique index) the same size for every iteration
+    @Setup(Level.Iteration)
+    public void truncate() throws Exception {
+        connection.setAutoCommit(true);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("TRUNCATE TABLE customer_details");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        App.closeDatabase(connection);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void singleRowInserts() throws Throwable {
+        connection.setAutoCommit(true);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+            for (int i = 0; i < ROWS; i++) {
+                Object record = App.customerRecord(nextRow++, true);
+                SET_ID.invoke(record, (long) NEXT_ID.invoke(allocator, connection));
+                BIND_INSERT.invoke(insert, record);
+                insert.executeUpdate();
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void batchedInserts() throws Throwable {
+        Object writer = NEW_WRITER.invoke(connection, allocator, batchSize, ROWS);
+        try {
+            for (int i = 0; i < ROWS; i++) {
+                ADD.invoke(writer, App.customerRecord(nextRow++, true));
+            }
+        } finally {
+            CLOSE_WRITER.invoke(writer);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ims.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Login and registration against a user index of the given size. The store is an
+// in-memory stand-in, so the numbers cover the service and PBKDF2, not disk I/O.
+// Logins go through the verification pool, so -t N gives concurrent logins per second
+// at each PBKDF2 cost; 210000 is PasswordHasher.DEFAULT_ITERATIONS.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+    private static final String PASSWORD = "Secret123";
+
+    private static final MethodHandle NEW_HASHER = App.constructor(App.PASSWORD_HASHER, int.class);
+    private static final MethodHandle HASH = App.method(App.PASSWORD_HASHER, "hash", String.class);
+    private static final MethodHandle NEW_USER = App.constructor(App.USER,
+        String.class, String.class, String.class, String.class);
+    private static final MethodHandle NEW_SERVICE = App.constructor(App.USER_SERVICE,
+        App.USER_REPOSITORY, App.PASSWORD_HASHER, int.class);
+    private static final MethodHandle LOGIN = App.method(App.USER_SERVICE, "loginUser", String.class, String.class);
+    private static final MethodHandle REGISTER = App.method(App.USER_SERVICE, "registerUser", App.USER);
+
+    @Param({"1000", "100000"})
+    public int users;
+
+    @Param({"10000", "100000", "210000", "600000"})
+    public int iterations;
+
+    private Object service;
+    private String[] usernames;
+    private final AtomicLong nextNewUser = new AtomicLong();
+
+    @Setup
+    public void setUp() throws Throwable {
+        Object hasher = NEW_HASHER.invoke(iterations);
+        // Hashing every account would dominate setup; they all share one stored hash
+        String storedHash = (String) HASH.invoke(hasher, PASSWORD);
+        usernames = new String[users];
+        List<Object> stored = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            usernames[i] = "user" + i;
+            stored.add(NEW_USER.invoke("User " + i, "user" + i + "@example.com", usernames[i], storedHash));
+        }
+
+        Object repository = App.proxy(App.USER_REPOSITORY, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "loadAll": return stored;
+                case "hashCode": return System.identityHashCode(proxy);
+                case "equals": return proxy == args[0];
+                case "toString": return "InMemoryUserRepository";
+                default: return null; // save, saveAll and close keep nothing
+            }
+        });
+        int verifyThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        service = NEW_SERVICE.invoke(repository, hasher, verifyThreads);
+    }
+
+    @Benchmark
+    public Object loginExistingUser() throws Throwable {
+        String username = usernames[ThreadLocalRandom.current().nextInt(users)];
+        return LOGIN.invoke(service, username, PASSWORD);
+    }
+
+    @Benchmark
+    public Object loginWrongPassword() throws Throwable {
+        String username = usernames[ThreadLocalRandom.current().nextInt(users)];
+        return LOGIN.invoke(service, username, "wrong-password");
+    }
+
+    @Benchmark
+    public Object loginUnknownUser() throws Throwable {
+        return LOGIN.invoke(service, "nobody", PASSWORD);
+    }
+
+    // Every call adds a new account, so the index keeps growing past the starting size
+    @Benchmark
+    public boolean registerUser() throws Throwable {
+        long n = nextNewUser.incrementAndGet();
+        Object user = NEW_USER.invoke("New User", "new" + n + "@example.com", "new" + n, PASSWORD);
+        return (boolean) REGISTER.invoke(service, user);
+    }
+}
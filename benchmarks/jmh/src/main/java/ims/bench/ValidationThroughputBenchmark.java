@@ -0,0 +1,141 @@
+package ims.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// CustomerValidator over a rotating set of records, whole records as on submit
+// and the single-field check the form runs on every keystroke. The legacy*
+// benchmarks are the String.matches checks it replaced, as the baseline.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationThroughputBenchmark {
+    private static final int RECORDS = 1024;
+
+    private static final MethodHandle VALIDATE = App.method(App.CUSTOMER_VALIDATOR, "validate",
+        App.CUSTOMER_RECORD, long.class);
+    private static final MethodHandle VALIDATE_FIELD = App.method(App.CUSTOMER_VALIDATOR, "validateField",
+        App.type("CustomerValidator$Field"), String.class);
+    private static final Object EMAIL = App.enumConstant("CustomerValidator$Field", "EMAIL");
+
+    private static final MethodHandle GET_NAME = App.method(App.CUSTOMER_RECORD, "getName");
+    private static final MethodHandle GET_EMAIL = App.method(App.CUSTOMER_RECORD, "getEmail");
+    private static final MethodHandle GET_PHONE = App.method(App.CUSTOMER_RECORD, "getPhone");
+    private static final MethodHandle GET_ADDRESS = App.method(App.CUSTOMER_RECORD, "getAddress");
+    private static final MethodHandle GET_POLICY_TYPE = App.method(App.CUSTOMER_RECORD, "getPolicyType");
+    private static final MethodHandle GET_POLICY_NUMBER = App.method(App.CUSTOMER_RECORD, "getPolicyNumber");
+    private static final MethodHandle GET_START_DATE = App.method(App.CUSTOMER_RECORD, "getStartDate");
+    private static final MethodHandle GET_END_DATE = App.method(App.CUSTOMER_RECORD, "getEndDate");
+
+    private final Object[] valid = new Object[RECORDS];
+    private final Object[] invalid = new Object[RECORDS];
+    private final String[] emails = new String[RECORDS];
+    private long startOfToday;
+    private int next;
+
+    @Setup
+    public void setUp() throws Throwable {
+        for (int i = 0; i < RECORDS; i++) {
+            valid[i] = App.customerRecord(i, true);
+            invalid[i] = App.customerRecord(i, false);
+            emails[i] = i % 4 == 0 ? "not-an-email" : "customer" + i + "@example.com";
+        }
+        startOfToday = (long) App.method(App.CUSTOMER_VALIDATOR, "startOfToday").invoke();
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (RECORDS - 1);
+        return next;
+    }
+
+    @Benchmark
+    public List<?> validateValidRecord() throws Throwable {
+        return (List<?>) VALIDATE.invoke(valid[nextIndex()], startOfToday);
+    }
+
+    @Benchmark
+    public List<?> validateInvalidRecord() throws Throwable {
+        return (List<?>) VALIDATE.invoke(invalid[nextIndex()], startOfToday);
+    }
+
+    @Benchmark
+    public Object validateEmailField() throws Throwable {
+        return VALIDATE_FIELD.invoke(EMAIL, emails[nextIndex()]);
+    }
+
+    @Benchmark
+    public List<String> legacyValidateValidRecord() throws Throwable {
+        return legacyValidate(valid[nextIndex()]);
+    }
+
+    @Benchmark
+    public List<String> legacyValidateInvalidRecord() throws Throwable {
+        return legacyValidate(invalid[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean legacyValidateEmailField() {
+        String email = emails[nextIndex()].trim();
+        return !email.isEmpty() && email.matches("^[A-Za-z0-9+_.-]+@(.+)$");
+    }
+
+    // ==========================================
+    // Previous Implementation
+    // ==========================================
+    // The per-field checks as they were written before the declarative rules
+    private static List<String> legacyValidate(Object record) throws Throwable {
+        List<String> errors = new ArrayList<>();
+        String name = ((String) GET_NAME.invoke(record)).trim();
+        if (name.isEmpty() || !name.matches("^[a-zA-Z\\s]{2,50}$")) {
+            errors.add("Name must be 2-50 characters long and contain only letters and spaces");
+        }
+        String email = ((String) GET_EMAIL.invoke(record)).trim();
+        if (email.isEmpty() || !email.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+            errors.add("Please enter a valid email address");
+        }
+        String phone = ((String) GET_PHONE.invoke(record)).trim();
+        if (phone.isEmpty() || !phone.matches("^\\d{10}$")) {
+            errors.add("Phone number must be 10 digits");
+        }
+        String address = ((String) GET_ADDRESS.invoke(record)).trim();
+        if (address.isEmpty() || address.length() < 5) {
+            errors.add("Address must be at least 5 characters long");
+        }
+        if (((String) GET_POLICY_TYPE.invoke(record)).isEmpty()) {
+            errors.add("Please select a policy type");
+        }
+        String policyNumber = ((String) GET_POLICY_NUMBER.invoke(record)).trim();
+        if (policyNumber.isEmpty() || !policyNumber.matches("^[A-Z]{2}\\d{6}$")) {
+            errors.add("Policy number must be in format: XX123456 (2 letters followed by 6 digits)");
+        }
+        Date startDate = (Date) GET_START_DATE.invoke(record);
+        Date endDate = (Date) GET_END_DATE.invoke(record);
+        if (startDate == null) {
+            errors.add("Please select a start date");
+        } else if (startDate.before(new Date())) {
+            errors.add("Start date cannot be in the past");
+        }
+        if (endDate == null) {
+            errors.add("Please select an end date");
+        } else if (startDate != null && endDate.before(startDate)) {
+            errors.add("End date must be after start date");
+        }
+        return errors;
+    }
+}